@@ -1,6 +1,7 @@
 package org.heigit.ohsome.contributions;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
@@ -12,12 +13,15 @@ import org.heigit.ohsome.contributions.avro.Contrib;
 import org.heigit.ohsome.contributions.contrib.Contributions;
 import org.heigit.ohsome.contributions.contrib.ContributionsAvroConverter;
 import org.heigit.ohsome.contributions.contrib.ContributionsRelation;
-import org.heigit.ohsome.contributions.minor.MinorNode;
+import org.heigit.ohsome.contributions.minor.MinorCache;
+import org.heigit.ohsome.contributions.minor.MinorStore;
+import org.heigit.ohsome.contributions.minor.UserDictionary;
 import org.heigit.ohsome.contributions.minor.MinorWay;
 import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
 import org.heigit.ohsome.contributions.spatialjoin.SpatialGridJoiner;
 import org.heigit.ohsome.contributions.spatialjoin.SpatialJoiner;
-import org.heigit.ohsome.contributions.util.RocksMap;
+import org.heigit.ohsome.contributions.transformer.ReferenceScanner;
+import org.heigit.ohsome.contributions.util.LongBitmap;
 import org.heigit.ohsome.contributions.util.Utils;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMEntity.OSMRelation;
@@ -25,44 +29,44 @@ import org.heigit.ohsome.osm.OSMType;
 import org.heigit.ohsome.osm.changesets.Changesets;
 import org.heigit.ohsome.osm.pbf.Blob;
 import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlobIndex;
 import org.heigit.ohsome.osm.pbf.Block;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
+import org.heigit.ohsome.osm.pbf.BufferPool;
+import org.heigit.ohsome.osm.pbf.KeyFilter;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
 import org.heigit.ohsome.parquet.avro.AvroUtil;
 import org.rocksdb.RocksDB;
-import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
 import picocli.CommandLine;
 import picocli.CommandLine.Option;
-import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
-import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Predicates.alwaysTrue;
-import static java.nio.file.StandardOpenOption.READ;
 import static org.heigit.ohsome.contributions.transformer.TransformerNodes.processNodes;
 import static org.heigit.ohsome.contributions.transformer.TransformerWays.processWays;
 import static org.heigit.ohsome.contributions.util.Utils.*;
 import static org.heigit.ohsome.osm.OSMType.*;
-import static org.heigit.ohsome.osm.pbf.OSMPbf.blobBuffer;
-import static org.heigit.ohsome.osm.pbf.OSMPbf.blockBuffer;
-import static org.heigit.ohsome.osm.pbf.ProtoZero.decodeMessage;
-import static reactor.core.publisher.Mono.fromCallable;
-import static reactor.core.scheduler.Schedulers.parallel;
+import static org.rocksdb.util.SizeUnit.MB;
 
 @CommandLine.Command(name = "contributions", aliases = {"contribs"},
         mixinStandardHelpOptions = true,
         version = "ohsome-planet contribution 1.0.1", //TODO version should be automatically set see picocli.CommandLine.IVersionProvider
         description = "generates parquet files")
 public class Contributions2Parquet implements Callable<Integer> {
+    // relations are converted in batches of about this many members, a batch shares its lookups
+    private static final int RELATION_BATCH_MEMBERS = 50_000;
 
     @Option(names = {"--pbf"}, required = true)
     private Path pbfPath;
@@ -85,14 +89,48 @@ public class Contributions2Parquet implements Callable<Integer> {
     @Option(names = {"--debug"}, description = "Print debug information.")
     private boolean debug = false;
 
-    @Option(names = {"--include-tags"}, description = "OSM keys of relations that should be built")
+    @Option(names = {"--mmap"}, description = "Memory map the pbf file instead of reading every blob with a separate file read.")
+    private boolean mmap = false;
+
+    @Option(names = {"--prefetch-depth"}, description = "number of blocks read and decompressed ahead per worker.")
+    private int prefetchDepth = BlockPrefetcher.Config.defaults().depth();
+
+    @Option(names = {"--decompress-threads"}, description = "number of threads used for reading and decompressing blocks. 0 decompresses on the worker threads.")
+    private int decompressThreads = BlockPrefetcher.Config.defaults().threads();
+
+    @Option(names = {"--minor-store"}, description = "storage of the minor node and way histories: ${COMPLETION-CANDIDATES}. DENSE memory maps an id indexed offset array per chunk instead of ingesting into RocksDB.")
+    private MinorStore.Backend minorStore = MinorStore.Backend.ROCKSDB;
+
+    @Option(names = {"--minor-node-buckets"}, negatable = true, defaultValue = "true", fallbackValue = "true",
+            description = "store the minor node histories of 256 consecutive ids in one RocksDB value.")
+    private boolean minorNodeBuckets = true;
+
+    @Option(names = {"--minor-node-cache"}, description = "number of decoded minor node versions cached by each worker across its batches and relations. 0 disables the cache.")
+    private long minorNodeCache = 250_000;
+
+    @Option(names = {"--prune-minor-nodes"}, description = "scan the way and relation blocks first and only store the minor node histories of nodes referenced by ways or relations.")
+    private boolean pruneMinorNodes = false;
+
+    @Option(names = {"--block-cache"}, description = "size in MB of the RocksDB block cache shared by all minor stores. 0 uses a default cache per store.")
+    private long blockCacheSize = 0;
+
+    @Option(names = {"--block-cache-type"}, description = "type of the shared block cache: ${COMPLETION-CANDIDATES}.")
+    private RocksUtil.CacheType blockCacheType = RocksUtil.CacheType.LRU;
+
+    @Option(names = {"--partitioned-filters"}, description = "partition the bloom filters and indexes of the minor stores, for stores whose filters do not fit into the block cache.")
+    private boolean partitionedFilters = false;
+
+    @Option(names = {"--rocksdb-stats"}, description = "Print RocksDB statistics of the minor stores at the end of the ways and relations stage.")
+    private boolean rocksDbStats = false;
+
+    @Option(names = {"--include-tags"}, description = "comma separated OSM keys, only contributions of nodes, ways and relations with at least one of these keys are written. Minor node and way histories are stored regardless.")
     private String includeTags = "";
 
     private SpatialJoiner countryJoiner;
 
     @Override
     public Integer call() throws Exception {
-        var pbf = OSMPbf.open(pbfPath);
+        var pbf = OSMPbf.open(pbfPath, mmap);
         if (debug) {
             FileInfo.printInfo(pbf);
         }
@@ -108,8 +146,8 @@ public class Contributions2Parquet implements Callable<Integer> {
 
         var total = Stopwatch.createStarted();
 
-        var blobHeaders = getBlobHeaders(pbf);
-        var blobTypes = pbf.blobsByType(blobHeaders);
+        var blobIndex = blobIndex(pbf);
+        var blobTypes = blobIndex.blobsByType();
 
         var keyFilter = new HashMap<String, Predicate<String>>();
         if (!includeTags.isBlank()) {
@@ -131,44 +169,94 @@ public class Contributions2Parquet implements Callable<Integer> {
         Files.createDirectories(out);
 
         RocksDB.loadLibrary();
-        var minorNodesPath = out.resolve("minorNodes");
-        processNodes(pbf, blobTypes, out, parallel, minorNodesPath, countryJoiner, changesetDb);
-        var minorWaysPath = out.resolve("minorWays");
-        try (var options = RocksUtil.defaultOptions().setCreateIfMissing(false);
-             var minorNodes = RocksDB.open(options, minorNodesPath.toString())) {
-            processWays(pbf, blobTypes, out, parallel, minorNodes, minorWaysPath, x -> true, countryJoiner, changesetDb);
-        }
+        try (var blockCache = blockCacheSize > 0 ? blockCacheType.create(blockCacheSize * MB) : null) {
+            var rocks = new RocksUtil.ReadProfile(blockCache, partitionedFilters, null);
+            var minorNodesPath = out.resolve("minorNodes");
+            var prefetch = new BlockPrefetcher.Config(prefetchDepth, decompressThreads);
+            // user names of the minor versions, the minor stores only keep their user ids
+            var users = new UserDictionary.Builder();
+            var writeMinorNode = pruneMinorNodes ? referencedNodes(pbf, blobTypes, prefetch) : (LongPredicate) x -> true;
+            var nodes = processNodes(pbf, blobTypes, out, parallel, minorNodesPath, new MinorStore.Config(minorStore, rocks, minorNodeBuckets), users, writeMinorNode, countryJoiner, changesetDb, new KeyFilter(keyFilter), prefetch);
+            if (debug) {
+                System.out.println(nodes.summary());
+            }
+            var minorNodeUsers = users.build();
+            var minorWaysPath = out.resolve("minorWays");
+            // only ways which are members of a relation are read from the minor way store
+            var relationWays = ReferenceScanner.scan(pbf, blobTypes, RELATION, WAY, parallel, prefetch);
+            if (debug) {
+                System.out.println("ways referenced by relations: " + relationWays);
+            }
+            try (var statistics = statistics()) {
+                var nodeStore = new MinorStore.Config(minorStore, rocks.withStatistics(statistics), minorNodeBuckets);
+                var wayStore = new MinorStore.Config(minorStore, rocks.withStatistics(statistics));
+                try (var minorNodes = nodeStore.open(minorNodesPath)) {
+                    var ways = processWays(pbf, blobTypes, out, parallel, minorNodes, minorNodeUsers, minorNodeCache, minorWaysPath, wayStore, users, relationWays, countryJoiner, changesetDb, new KeyFilter(keyFilter), prefetch);
+                    if (debug) {
+                        System.out.println(ways.summary());
+                    }
+                }
+                printStatistics(WAY, statistics);
+            }
 
-        processRelations(pbfPath, out, parallel, blobTypes, keyFilter, changesetDb);
+            try (var statistics = statistics()) {
+                var nodeStore = new MinorStore.Config(minorStore, rocks.withStatistics(statistics), minorNodeBuckets);
+                var wayStore = new MinorStore.Config(minorStore, rocks.withStatistics(statistics));
+                processRelations(pbf, out, parallel, blobIndex, blobTypes, keyFilter, changesetDb, nodeStore, wayStore, users.build(), prefetch);
+                printStatistics(RELATION, statistics);
+            }
+        }
 
         System.out.println("done in " + total);
         return 0;
     }
 
-    private void processRelations(Path pbfPath, Path output, int numFiles, Map<OSMType, List<BlobHeader>> blobTypes, Map<String, Predicate<String>> keyFilter, Changesets changesetDb) throws IOException, InterruptedException, RocksDBException {
-        try (var ch = FileChannel.open(pbfPath, READ);
-             var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
-             var minorNodesDb = RocksDB.open(options, output.resolve("minorNodes").toString());
-             var minorWaysDb = RocksDB.open(options, output.resolve("minorWays").toString());
+    private void processRelations(OSMPbf pbf, Path output, int numFiles, BlobIndex blobIndex, Map<OSMType, List<BlobHeader>> blobTypes, Map<String, Predicate<String>> keyFilter, Changesets changesetDb, MinorStore.Config nodeStore, MinorStore.Config wayStore, UserDictionary users, BlockPrefetcher.Config prefetch) throws IOException, InterruptedException {
+        var relationBlobs = blobTypes.get(RELATION);
+        var skippable = skippableBlocks(blobIndex, relationBlobs.size());
+        var blockFilter = new KeyFilter(keyFilter);
+        // a single reader feeds all contribution workers, so read ahead for all of them
+        var depth = prefetch.depth() * parallel;
+        var pool = new BufferPool("%s buffers".formatted(RELATION), depth + 10);
+        try (var source = pbf.blobSource();
+             var prefetcher = new BlockPrefetcher(source, pool, new BlockPrefetcher.Config(depth, prefetch.threads()));
+             var relationBlocks = prefetcher.blocks(relationBlobs, 0, relationBlobs.size());
+             var minorNodesDb = nodeStore.open(output.resolve("minorNodes"));
+             var minorWaysDb = wayStore.open(output.resolve("minorWays"));
              var progress = new ProgressBarBuilder()
                      .setTaskName("process %8s".formatted(RELATION))
                      .setInitialMax(blobTypes.get(RELATION).size())
                      .setUnit(" blk", 1)
                      .build()) {
 
-            var readerScheduler =
-                    Schedulers.newBoundedElastic(10 * Runtime.getRuntime().availableProcessors(), 10_000, "reader", 60, true);
-
             var writers = getWriters(output, numFiles);
 
-            var blocks = Flux.fromIterable(blobTypes.get(RELATION))
-                    // read blob from file
-                    .flatMapSequential(blobHeader -> fromCallable(() -> decodeMessage(blobBuffer(ch, blobHeader), Blob::new))
-                            .subscribeOn(readerScheduler), parallel)
-                    // decompress blob into block
-                    .flatMapSequential(blob -> fromCallable(() -> decodeMessage(blockBuffer(blob), Block::new))
-                            .subscribeOn(parallel()), parallel)
-                    .toIterable(10).iterator();
+            // one cache of minor nodes per contribution worker
+            var nodeCacheStats = new MinorCache.Stats();
+            var nodeCaches = new ConcurrentLinkedQueue<MinorCache<?>>();
+            var nodeCache = ThreadLocal.withInitial(() -> {
+                var cache = MinorCache.nodes(minorNodesDb, minorNodeCache);
+                nodeCaches.add(cache);
+                return cache;
+            });
+
+            // drop blocks without any matching key before their groups are decoded
+            var blocks = new AbstractIterator<Block>() {
+                @Override
+                protected Block computeNext() {
+                    while (relationBlocks.hasNext()) {
+                        var i = relationBlocks.index();
+                        var block = relationBlocks.next();
+                        if (skippable[i] && !blockFilter.matcher(block).mayMatch()) {
+                            block.release();
+                            progress.step();
+                            continue;
+                        }
+                        return block;
+                    }
+                    return endOfData();
+                }
+            };
 
             var contribWorkers = Executors.newFixedThreadPool(numFiles, new ThreadFactoryBuilder()
                     .setNameFormat("contrib-worker-%d")
@@ -178,24 +266,42 @@ public class Contributions2Parquet implements Callable<Integer> {
             var entities = Iterators.peekingIterator(new OSMIterator(blocks, progress::stepBy));
 
             var canceled = new AtomicBoolean(false);
-            while (entities.hasNext() && !canceled.get()) {
-                var osh = getNextOSH(entities);
-
-                if (hasNoTags(osh) || filterOut(osh, keyFilter)) {
-                    continue;
+            var batch = new ArrayList<List<OSMEntity>>();
+            var batchMembers = 0;
+            while (!canceled.get()) {
+                var last = !entities.hasNext();
+                if (!last) {
+                    var osh = getNextOSH(entities);
+                    if (hasNoTags(osh) || filterOut(osh, keyFilter)) {
+                        continue;
+                    }
+                    batch.add(osh);
+                    batchMembers += memberCount(osh);
+                    if (batchMembers < RELATION_BATCH_MEMBERS) {
+                        continue;
+                    }
                 }
 
-                var writer = writers.take();
-                contribWorkers.execute(() -> {
-                    try {
-                        processRelation(osh, writer, countryJoiner, changesetDb, minorNodesDb, minorWaysDb, debug);
-                    } catch (Exception e) {
-                        canceled.set(true);
-                        System.err.println(e.getMessage());
-                    } finally {
-                        writers.add(writer);
-                    }
-                });
+                if (!batch.isEmpty()) {
+                    var relations = batch;
+                    batch = new ArrayList<>();
+                    batchMembers = 0;
+
+                    var writer = writers.take();
+                    contribWorkers.execute(() -> {
+                        try {
+                            processRelations(relations, writer, countryJoiner, changesetDb, nodeCache.get(), minorWaysDb, users, debug);
+                        } catch (Exception e) {
+                            canceled.set(true);
+                            System.err.println(e.getMessage());
+                        } finally {
+                            writers.add(writer);
+                        }
+                    });
+                }
+                if (last) {
+                    break;
+                }
             }
 
             if (canceled.get()) {
@@ -205,7 +311,48 @@ public class Contributions2Parquet implements Callable<Integer> {
                 var writer = writers.take();
                 writer.close(canceled.get());
             }
+            if (debug) {
+                nodeCaches.forEach(nodeCacheStats::add);
+                System.out.println("minor node cache: " + nodeCacheStats);
+                System.out.println(pool.stats() + ", " + Blob.inflaterStats());
+            }
+        }
+    }
+
+    private LongBitmap referencedNodes(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobTypes, BlockPrefetcher.Config prefetch) throws IOException {
+        var ids = LongBitmap.builder();
+        ReferenceScanner.scan(pbf, blobTypes, WAY, NODE, parallel, prefetch, ids);
+        ReferenceScanner.scan(pbf, blobTypes, RELATION, NODE, parallel, prefetch, ids);
+        var nodes = ids.build();
+        if (debug) {
+            System.out.println("nodes referenced by ways or relations: " + nodes);
+        }
+        return nodes;
+    }
+
+    private Statistics statistics() {
+        return rocksDbStats ? new Statistics() : null;
+    }
+
+    private static void printStatistics(OSMType stage, Statistics statistics) {
+        if (statistics != null) {
+            System.out.println("RocksDB statistics of the %s stage:%n%s".formatted(stage, statistics));
+        }
+    }
+
+    /**
+     * A block may only be skipped as a whole if no history continues from or into its neighbours,
+     * otherwise the remaining versions of such a history would be processed without the skipped ones.
+     */
+    private static boolean[] skippableBlocks(BlobIndex index, int count) {
+        var offset = index.size() - count;
+        var skippable = new boolean[count];
+        for (var i = 0; i < count; i++) {
+            var blob = offset + i;
+            skippable[i] = (i == 0 || index.lastId(blob - 1) != index.firstId(blob))
+                    && (i == count - 1 || index.lastId(blob) != index.firstId(blob + 1));
         }
+        return skippable;
     }
 
     private List<OSMEntity> getNextOSH(PeekingIterator<OSMEntity> entities) {
@@ -230,54 +377,71 @@ public class Contributions2Parquet implements Callable<Integer> {
                 .withMaxRowCountForPageSizeCheck(2);
     }
 
-    private static void processRelation(List<OSMEntity> entities, Writer writer, SpatialJoiner spatialJoiner, Changesets changesetDb, RocksDB minorNodesDb, RocksDB minorWaysDb, boolean debug) throws Exception {
-        var id = entities.getFirst().id();
+    private static int memberCount(List<OSMEntity> osh) {
+        var count = 0;
+        for (var osm : osh) {
+            count += ((OSMRelation) osm).members().size();
+        }
+        return count;
+    }
+
+    /**
+     * Converts a batch of relation histories, the member ways, nodes and changesets of all relations are
+     * fetched together, so the whole batch needs one lookup per store and one changeset query.
+     */
+    private static void processRelations(List<List<OSMEntity>> batch, Writer writer, SpatialJoiner spatialJoiner, Changesets changesetDb, MinorCache<List<OSMEntity.OSMNode>> nodeCache, MinorStore minorWaysDb, UserDictionary users, boolean debug) throws Exception {
         var minorNodeIds = new HashSet<Long>();
         var minorMemberIds = Map.of(
                 NODE, minorNodeIds,
                 WAY, Sets.<Long>newHashSetWithExpectedSize(64_000));
 
         var changesetIds = new HashSet<Long>();
-        var osh = new ArrayList<OSMRelation>(entities.size());
-        entities.forEach(entity -> {
-            var osm = (OSMRelation) entity;
-            osm.members().stream()
-                    .filter(member -> member.type() != RELATION)
-                    .forEach(member -> minorMemberIds.get(member.type()).add(member.id()));
-            changesetIds.add(osm.changeset());
-            osh.add(osm);
-        });
+        var oshs = new ArrayList<List<OSMRelation>>(batch.size());
+        for (var entities : batch) {
+            var osh = new ArrayList<OSMRelation>(entities.size());
+            entities.forEach(entity -> {
+                var osm = (OSMRelation) entity;
+                osm.members().stream()
+                        .filter(member -> member.type() != RELATION)
+                        .forEach(member -> minorMemberIds.get(member.type()).add(member.id()));
+                changesetIds.add(osm.changeset());
+                osh.add(osm);
+            });
+            oshs.add(osh);
+        }
 
-        var minorWays = RocksMap.get(minorWaysDb, minorMemberIds.get(WAY), MinorWay::deserialize);
-        minorWays.values().stream()
-                .<OSMEntity.OSMWay>mapMulti(Iterable::forEach)
-                .forEach(osm -> {
-                    minorNodeIds.addAll(osm.refs());
-                    changesetIds.add(osm.changeset());
-                });
+        // node ids are taken from the ref tables while the ways are decoded
+        var minorWays = minorWaysDb.get(minorMemberIds.get(WAY), (wayId, buffer) -> {
+            var minorWay = MinorWay.deserialize(wayId, buffer, minorNodeIds::add);
+            minorWay.forEach(osm -> changesetIds.add(osm.changeset()));
+            return minorWay;
+        });
 
-        var minorNodes = RocksMap.get(minorNodesDb, minorNodeIds, MinorNode::deserialize);
+        var minorNodes = nodeCache.get(minorNodeIds);
         minorNodes.values().stream()
                 .<OSMEntity.OSMNode>mapMulti(Iterable::forEach)
                 .map(OSMEntity.OSMNode::changeset)
                 .forEach(changesetIds::add);
 
         var changesets = Utils.fetchChangesets(changesetIds, changesetDb);
-
-        var time = System.nanoTime();
-        var contributions = new ContributionsRelation(osh, Contributions.memberOf(minorNodes, minorWays));
-        var converter = new ContributionsAvroConverter(contributions, changesets::get, spatialJoiner);
-        var versions = 0;
-        while (converter.hasNext()) {
-            var contrib = converter.next();
-            if (contrib.isPresent()) {
-                writer.write(contrib.get());
-                versions++;
+        var members = Contributions.memberOf(minorNodes, minorWays);
+
+        for (var osh : oshs) {
+            var time = System.nanoTime();
+            var contributions = new ContributionsRelation(osh, members);
+            var converter = new ContributionsAvroConverter(contributions, changesets::get, spatialJoiner, users);
+            var versions = 0;
+            while (converter.hasNext()) {
+                var contrib = converter.next();
+                if (contrib.isPresent()) {
+                    writer.write(contrib.get());
+                    versions++;
+                }
             }
-        }
 
-        if (debug) {
-            writer.log("%s,%s,%s".formatted(id, versions, System.nanoTime() - time));
+            if (debug) {
+                writer.log("%s,%s,%s".formatted(osh.getFirst().id(), versions, System.nanoTime() - time));
+            }
         }
     }
 
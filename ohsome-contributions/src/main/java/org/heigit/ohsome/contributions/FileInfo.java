@@ -5,6 +5,7 @@ import org.heigit.ohsome.osm.pbf.OSMPbf;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.concurrent.Callable;
@@ -22,12 +23,13 @@ public class FileInfo implements Callable<Integer> {
         return 0;
     }
 
-    public static void printInfo(OSMPbf pbf) {
+    public static void printInfo(OSMPbf pbf) throws IOException {
         var header = pbf.header();
         System.out.printf("""
                 File:
                   Name: %s
-                  Size: %d%n""", pbf.path(), pbf.size());
+                  Size: %d
+                  Compression: %s%n""", pbf.path(), pbf.size(), pbf.compression());
         System.out.printf("""
                         Header:
                           Bounding_Boxes: %s
@@ -0,0 +1,39 @@
+package org.heigit.ohsome.contributions;
+
+import org.heigit.ohsome.osm.OSMType;
+import org.heigit.ohsome.osm.pbf.OSMPbf;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@Command(name = "history",
+        description = "print all versions of single entities of an osm pbf file")
+public class History implements Callable<Integer> {
+    @Option(names = {"--pbf"}, required = true)
+    private Path path;
+
+    @Option(names = {"--type"}, required = true, description = "entity type, one of ${COMPLETION-CANDIDATES}")
+    private OSMType type;
+
+    @Parameters(arity = "1..*", paramLabel = "ID", description = "osm ids")
+    private List<Long> ids;
+
+    @Override
+    public Integer call() throws Exception {
+        var pbf = OSMPbf.open(path);
+        for (var id : ids) {
+            var versions = pbf.history(type, id);
+            if (versions.isEmpty()) {
+                System.out.printf("%s/%d: not found%n", type.name().toLowerCase(), id);
+                continue;
+            }
+            System.out.printf("%s/%d: %d versions%n", type.name().toLowerCase(), id, versions.size());
+            versions.forEach(osm -> System.out.println("  " + osm));
+        }
+        return 0;
+    }
+}
@@ -5,6 +5,7 @@ import com.google.common.collect.PeekingIterator;
 import org.heigit.ohsome.contributions.util.Progress;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.pbf.Block;
+import org.heigit.ohsome.osm.pbf.BlockReader;
 
 import java.util.Collections;
 import java.util.Iterator;
@@ -41,7 +42,7 @@ public class OSMIterator implements Iterator<OSMEntity> {
             if (!blocks.hasNext()) {
                 return null;
             }
-            entities = Iterators.peekingIterator(blocks.next().entities().iterator());
+            entities = Iterators.peekingIterator(BlockReader.entities(blocks.next()));
         }
         var n = entities.next();
         if (!entities.hasNext()) {
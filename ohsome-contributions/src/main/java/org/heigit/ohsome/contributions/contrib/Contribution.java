@@ -3,7 +3,6 @@ package org.heigit.ohsome.contributions.contrib;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMType;
 
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -12,9 +11,9 @@ import java.util.function.Function;
 import static java.util.Collections.emptyList;
 import static org.heigit.ohsome.osm.OSMEntity.*;
 
-public record Contribution(Instant timestamp, long changeset, int userId, String user, OSMEntity entity,
+public record Contribution(long timestamp, long changeset, int userId, String user, OSMEntity entity,
                            List<ContribMember> members, Map<String, Object> data) {
-    public Contribution(Instant timestamp, long changeset, int userId, String user, OSMEntity entity, List<ContribMember> members) {
+    public Contribution(long timestamp, long changeset, int userId, String user, OSMEntity entity, List<ContribMember> members) {
         this(timestamp, changeset, userId, user, entity, members, new ConcurrentHashMap<>());
     }
 
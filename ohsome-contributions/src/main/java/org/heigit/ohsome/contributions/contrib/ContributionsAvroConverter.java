@@ -1,6 +1,7 @@
 package org.heigit.ohsome.contributions.contrib;
 
 import org.heigit.ohsome.contributions.avro.*;
+import org.heigit.ohsome.contributions.minor.UserDictionary;
 import org.heigit.ohsome.contributions.util.XZCode;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMType;
@@ -27,6 +28,7 @@ public class ContributionsAvroConverter extends AbstractIterator<Optional<Contri
     private final OSMType type;
     private final Contributions contributions;
     private final Function<Long, ContribChangeset> changesets;
+    private final UserDictionary users;
     private final Contrib.Builder builder = Contrib.newBuilder();
     private final ContribUser.Builder userBuilder = ContribUser.newBuilder();
     private final Centroid.Builder centroidBuilder = Centroid.newBuilder();
@@ -45,14 +47,27 @@ public class ContributionsAvroConverter extends AbstractIterator<Optional<Contri
     private double lengthBefore;
 
     public ContributionsAvroConverter(Contributions contributions, Function<Long, ContribChangeset> changesets, SpatialJoiner countryJoiner) {
+        this(contributions, changesets, countryJoiner, UserDictionary.EMPTY);
+    }
+
+    /**
+     * @param users resolves the user names of minor versions, which are read without names
+     */
+    public ContributionsAvroConverter(Contributions contributions, Function<Long, ContribChangeset> changesets, SpatialJoiner countryJoiner, UserDictionary users) {
         this.contributions = contributions;
         this.changesets = changesets;
+        this.users = users;
         this.type = contributions.type();
         this.countryJoiner = countryJoiner;
         builder.setOsmType(type.toString());
         builder.setOsmId(contributions.id());
     }
 
+    private String user(Contribution contribution) {
+        var user = contribution.user();
+        return user != null ? user : users.name(contribution.userId(), contribution.timestamp());
+    }
+
     @Override
     protected Optional<Contrib> computeNext() {
         var buildTime = System.nanoTime();
@@ -92,12 +107,12 @@ public class ContributionsAvroConverter extends AbstractIterator<Optional<Contri
         builder.setOsmVersion(entity.version());
         builder.setOsmMinorVersion(minorVersion);
         builder.setOsmEdits(++edits);
-        builder.setOsmLastEdit(contributionBefore.map(Contribution::timestamp).orElse(null));
+        builder.setOsmLastEdit(contributionBefore.map(Contribution::timestamp).map(Instant::ofEpochSecond).orElse(null));
 
-        builder.setValidFrom(contribution.timestamp());
-        builder.setValidTo(contributionNext.map(Contribution::timestamp).orElse(VALID_TO));
+        builder.setValidFrom(Instant.ofEpochSecond(contribution.timestamp()));
+        builder.setValidTo(contributionNext.map(Contribution::timestamp).map(Instant::ofEpochSecond).orElse(VALID_TO));
 
-        builder.setUserBuilder(userBuilder.setId(contribution.userId()).setName(contribution.user()));
+        builder.setUserBuilder(userBuilder.setId(contribution.userId()).setName(user(contribution)));
         builder.setChangeset(changesets.apply(contribution.changeset()));
 
         builder.setTags(Map.copyOf(entity.tags()));
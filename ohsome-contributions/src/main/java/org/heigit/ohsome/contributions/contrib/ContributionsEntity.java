@@ -4,12 +4,12 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMId;
+import org.heigit.ohsome.osm.OSMMembers;
 
-import java.time.Instant;
 import java.util.*;
 import java.util.function.Function;
 
-import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingLong;
 import static java.util.Optional.ofNullable;
 
 
@@ -17,23 +17,27 @@ public class ContributionsEntity<T extends OSMEntity> extends AbstractContributi
 
   private final PeekingIterator<T> majorVersions;
   protected T major;
-  protected Instant timestamp;
+  // epoch seconds
+  protected long timestamp;
 
   protected Map<OSMId, Contributions> oshContributions = new HashMap<>();
   protected Map<OSMId, Contributions> active = new HashMap<>();
   protected PriorityQueue<Contributions> queue = new PriorityQueue<>(
-      comparing(this::timestamp).thenComparing(this::changeset));
+      comparingLong(this::timestamp).thenComparingLong(this::changeset));
 
   protected final Function<OSMId, Contributions> memberContributions;
 
   protected List<Contribution.ContribMember> members;
+  // members of the current major version, resolved once per major version
+  private OSMMembers majorMembers;
+  private OSMId[] memberIds = new OSMId[0];
   private long changeset;
   private int userId;
   private String user;
 
-  Instant timestamp(Contributions contributions) {
+  long timestamp(Contributions contributions) {
     if (contributions == null || !contributions.hasNext()) {
-      return Instant.MAX;
+      return Long.MAX_VALUE;
     }
     return contributions.peek().timestamp();
   }
@@ -80,15 +84,20 @@ public class ContributionsEntity<T extends OSMEntity> extends AbstractContributi
   }
 
   private List<Contribution.ContribMember> initMembers() {
-    var majorMembers = major.members();
-    var mems = new ArrayList<Contribution.ContribMember>(majorMembers.size());
+    majorMembers = major.memberView();
+    var size = majorMembers.size();
+    if (memberIds.length < size) {
+      memberIds = new OSMId[size];
+    }
+    var mems = new ArrayList<Contribution.ContribMember>(size);
 
-    for (var m : majorMembers) {
-      var member = active.computeIfAbsent(m.osmId(),this::getOshContributions);
-      while (member.hasNext() && (!member.peek().timestamp().isAfter(timestamp) || member.peek().changeset() == changeset)) {
+    for (var i = 0; i < size; i++) {
+      var osmId = memberIds[i] = majorMembers.osmId(i);
+      var member = active.computeIfAbsent(osmId, this::getOshContributions);
+      while (member.hasNext() && (member.peek().timestamp() <= timestamp || member.peek().changeset() == changeset)) {
         member.next();
       }
-      mems.add(new Contribution.ContribMember(m.type(), m.id(), member.prev(), m.role()));
+      mems.add(new Contribution.ContribMember(osmId.type(), osmId.id(), member.prev(), majorMembers.role(i)));
     }
 
     queue.addAll(active.values());
@@ -113,15 +122,15 @@ public class ContributionsEntity<T extends OSMEntity> extends AbstractContributi
     var contrib = new Contribution(timestamp, changeset, userId, user, major, members);
 
     var nextMajorTimestamp =
-        majorVersions.hasNext() ? majorVersions.peek().timestamp() : Instant.MAX;
+        majorVersions.hasNext() ? majorVersions.peek().timestamp() : Long.MAX_VALUE;
 
     timestamp = timestamp(queue.peek());
     changeset = changeset(queue.peek());
     userId = userId(queue.peek());
     user = user(queue.peek());
 
-    while (!queue.isEmpty() && changeset(queue.peek()) == changeset && timestamp(
-        queue.peek()).isBefore(nextMajorTimestamp)) {
+    while (!queue.isEmpty() && changeset(queue.peek()) == changeset
+        && timestamp(queue.peek()) < nextMajorTimestamp) {
       var member = ofNullable(queue.poll()).orElseThrow();
       timestamp = timestamp(member);
       if (member.hasNext()) {
@@ -130,17 +139,18 @@ public class ContributionsEntity<T extends OSMEntity> extends AbstractContributi
       queue.add(member);
     }
 
-    if (timestamp.isBefore(nextMajorTimestamp)) {
+    if (timestamp < nextMajorTimestamp) {
       // we got a minor version
-      var majorMembers = major.members();
-      members = new ArrayList<>(majorMembers.size());
-      for (var member : majorMembers) {
-        var memberContribution = active.get(member.osmId());
-        while (memberContribution.hasNext() && !memberContribution.peek().timestamp().isAfter(timestamp)
+      var size = majorMembers.size();
+      members = new ArrayList<>(size);
+      for (var i = 0; i < size; i++) {
+        var osmId = memberIds[i];
+        var memberContribution = active.get(osmId);
+        while (memberContribution.hasNext() && memberContribution.peek().timestamp() <= timestamp
             && changeset(memberContribution) == changeset) {
           memberContribution.next();
         }
-        members.add(new Contribution.ContribMember(member.type(), member.id(), memberContribution.prev(), member.role()));
+        members.add(new Contribution.ContribMember(osmId.type(), osmId.id(), memberContribution.prev(), majorMembers.role(i)));
       }
     } else {
       // next major version
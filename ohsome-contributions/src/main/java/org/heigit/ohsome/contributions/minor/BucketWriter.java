@@ -0,0 +1,120 @@
+package org.heigit.ohsome.contributions.minor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the histories of one chunk into {@link MinorBucket}s and writes every bucket as one value of the target.
+ * <p>
+ * Neighbouring chunks may share their first and last bucket, so these two buckets are written to a boundary file
+ * instead and merged with their counterparts of the other chunks by {@link #mergeBoundaries(List, MinorWriter)}
+ * once all chunks are written.
+ */
+public class BucketWriter extends MinorWriter {
+    private final MinorWriter target;
+    private final Path boundaryPath;
+    private final MinorBucket.Builder builder = new MinorBucket.Builder();
+    private DataOutputStream boundary;
+    private long bucket = -1;
+    private boolean first = true;
+
+    public BucketWriter(MinorWriter target, Path boundaryPath) {
+        this.target = target;
+        this.boundaryPath = boundaryPath;
+    }
+
+    @Override
+    protected void put(long id, byte[] value, int length) throws IOException {
+        var b = MinorBucket.bucket(id);
+        if (b != bucket) {
+            flush(false);
+            bucket = b;
+        }
+        builder.add(id, value, 0, length);
+    }
+
+    private void flush(boolean last) throws IOException {
+        if (builder.isEmpty()) {
+            return;
+        }
+        var output = builder.serialize();
+        if (first || last) {
+            if (boundary == null) {
+                boundary = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(boundaryPath)));
+            }
+            boundary.writeLong(bucket);
+            boundary.writeInt(output.length);
+            boundary.write(output.array, 0, output.length);
+        } else {
+            target.put(bucket, output.array, output.length);
+        }
+        first = false;
+        builder.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (target) {
+            flush(true);
+        } finally {
+            if (boundary != null) {
+                boundary.close();
+            }
+        }
+    }
+
+    /**
+     * Merges the parts of the boundary buckets.
+     *
+     * @param boundaries boundary files in chunk order
+     */
+    public static void mergeBoundaries(List<Path> boundaries, MinorWriter target) throws IOException {
+        var builder = new MinorBucket.Builder();
+        var current = -1L;
+        for (var part : read(boundaries)) {
+            if (part.bucket() != current && !builder.isEmpty()) {
+                var output = builder.serialize();
+                target.put(current, output.array, output.length);
+                builder.clear();
+            }
+            current = part.bucket();
+            builder.addAll(ByteBuffer.wrap(part.value()));
+        }
+        if (!builder.isEmpty()) {
+            var output = builder.serialize();
+            target.put(current, output.array, output.length);
+        }
+    }
+
+    private record Part(long bucket, byte[] value) {
+
+    }
+
+    private static List<Part> read(List<Path> boundaries) throws IOException {
+        var parts = new ArrayList<Part>();
+        for (var path : boundaries) {
+            try (var input = new DataInputStream(Files.newInputStream(path))) {
+                while (true) {
+                    long bucket;
+                    try {
+                        bucket = input.readLong();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    var value = new byte[input.readInt()];
+                    input.readFully(value);
+                    parts.add(new Part(bucket, value));
+                }
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,111 @@
+package org.heigit.ohsome.contributions.minor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Minor histories written by {@link DenseMinorWriter}, osm ids are dense, so the offset of an id is found
+ * directly by its position in the memory mapped index of its chunk. A lookup is a binary search over the
+ * chunks followed by two reads of the index, the history is decoded directly from the mapped log without any
+ * decompression or read amplification.
+ */
+public class DenseMinorStore implements MinorStore {
+    private static final int SEGMENT_BITS = 30;
+
+    private record Chunk(long firstId, long count, MappedFile index, MappedFile log) {
+
+        long offset(long id) {
+            return index.getLong((1 + id - firstId) * Long.BYTES);
+        }
+    }
+
+    private final Chunk[] chunks;
+    private final long[] firstIds;
+
+    private DenseMinorStore(Chunk[] chunks) {
+        this.chunks = chunks;
+        this.firstIds = Arrays.stream(chunks).mapToLong(Chunk::firstId).toArray();
+    }
+
+    public static DenseMinorStore open(Path path) throws IOException {
+        return open(path, SEGMENT_BITS);
+    }
+
+    static DenseMinorStore open(Path path, int segmentBits) throws IOException {
+        var chunks = new ArrayList<Chunk>();
+        if (Files.exists(path)) {
+            try (var files = Files.list(path)) {
+                for (var indexPath : files.filter(file -> file.toString().endsWith(".idx")).toList()) {
+                    var index = new MappedFile(indexPath, segmentBits);
+                    var logPath = indexPath.resolveSibling(indexPath.getFileName().toString().replace(".idx", ".log"));
+                    var count = index.size() / Long.BYTES - 2;
+                    chunks.add(new Chunk(index.getLong(0), count, index, new MappedFile(logPath, segmentBits)));
+                }
+            }
+        }
+        chunks.sort(Comparator.comparingLong(Chunk::firstId));
+        return new DenseMinorStore(chunks.toArray(Chunk[]::new));
+    }
+
+    /**
+     * @return the serialized history or null if the id has none
+     */
+    public byte[] get(long id) {
+        var buffer = buffer(id);
+        if (buffer == null) {
+            return null;
+        }
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return the serialized history, usually a view of the mapped log, or null if the id has none
+     */
+    public ByteBuffer buffer(long id) {
+        var c = Arrays.binarySearch(firstIds, id);
+        if (c < 0) {
+            c = -c - 2;
+        }
+        if (c < 0) {
+            return null;
+        }
+        var chunk = chunks[c];
+        if (id - chunk.firstId() >= chunk.count()) {
+            return null;
+        }
+        var start = chunk.offset(id);
+        var end = chunk.offset(id + 1);
+        if (start == end) {
+            return null;
+        }
+        return chunk.log().slice(start, Math.toIntExact(end - start));
+    }
+
+    @Override
+    public <T> Map<Long, T> get(Collection<Long> ids, BiFunction<Long, ByteBuffer, T> deserializer) {
+        var map = HashMap.<Long, T>newHashMap(ids.size());
+        for (var id : ids) {
+            var buffer = buffer(id);
+            if (buffer != null) {
+                map.put(id, deserializer.apply(id, buffer));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public void close() {
+        // mappings are released with the store
+    }
+}
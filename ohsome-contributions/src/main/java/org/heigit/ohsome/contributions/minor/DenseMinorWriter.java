@@ -0,0 +1,70 @@
+package org.heigit.ohsome.contributions.minor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the minor histories of one chunk as {@code minor-<chunk>.log}, the serialized histories one after another,
+ * and {@code minor-<chunk>.idx}, the first id of the chunk followed by the log offset of every id up to the last one
+ * and the final log size. A missing id has the same offset as its successor.
+ */
+public class DenseMinorWriter extends MinorWriter {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final int chunk;
+    private DataOutputStream index;
+    private OutputStream log;
+    private long next;
+    private long position;
+
+    public DenseMinorWriter(Path directory, int chunk) {
+        this.directory = directory;
+        this.chunk = chunk;
+    }
+
+    static Path indexPath(Path directory, int chunk) {
+        return directory.resolve("minor-%05d.idx".formatted(chunk));
+    }
+
+    static Path logPath(Path directory, int chunk) {
+        return directory.resolve("minor-%05d.log".formatted(chunk));
+    }
+
+    @Override
+    protected void put(long id, byte[] value, int length) throws IOException {
+        if (index == null) {
+            Files.createDirectories(directory);
+            index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath(directory, chunk)), BUFFER_SIZE));
+            log = new BufferedOutputStream(Files.newOutputStream(logPath(directory, chunk)), BUFFER_SIZE);
+            index.writeLong(id);
+            next = id;
+        }
+        if (id < next) {
+            throw new IllegalArgumentException("ids must be ascending, got %d after %d".formatted(id, next - 1));
+        }
+        while (next <= id) {
+            index.writeLong(position);
+            next++;
+        }
+        log.write(value, 0, length);
+        position += length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (index == null) {
+            return;
+        }
+        try {
+            index.writeLong(position);
+        } finally {
+            index.close();
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.heigit.ohsome.contributions.minor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Read only memory mapping of a file of any size, mapped in segments of {@code 1 << segmentBits} bytes.
+ * Absolute reads only, so it can be shared between threads.
+ */
+class MappedFile {
+    private final ByteBuffer[] segments;
+    private final int segmentBits;
+    private final long segmentMask;
+    private final long size;
+
+    MappedFile(Path path, int segmentBits) throws IOException {
+        this.segmentBits = segmentBits;
+        this.segmentMask = (1L << segmentBits) - 1;
+        try (var channel = FileChannel.open(path, READ)) {
+            this.size = channel.size();
+            var segmentSize = 1L << segmentBits;
+            this.segments = new ByteBuffer[(int) ((size + segmentMask) >>> segmentBits)];
+            for (var i = 0; i < segments.length; i++) {
+                var position = (long) i << segmentBits;
+                segments[i] = channel.map(READ_ONLY, position, Math.min(segmentSize, size - position));
+            }
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @param position must be a multiple of {@link Long#BYTES}, so the value never spans two segments
+     */
+    long getLong(long position) {
+        return segments[(int) (position >>> segmentBits)].getLong((int) (position & segmentMask));
+    }
+
+    /**
+     * @return a view of the mapped bytes or, if they span two segments, a copy
+     */
+    ByteBuffer slice(long position, int length) {
+        var segment = segments[(int) (position >>> segmentBits)];
+        var index = (int) (position & segmentMask);
+        if (index + length <= segment.limit()) {
+            return segment.slice(index, length);
+        }
+        var bytes = new byte[length];
+        get(position, bytes, 0, length);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    void get(long position, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            var segment = segments[(int) (position >>> segmentBits)];
+            var index = (int) (position & segmentMask);
+            var n = Math.min(length, segment.limit() - index);
+            segment.get(index, dst, offset, n);
+            position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+}
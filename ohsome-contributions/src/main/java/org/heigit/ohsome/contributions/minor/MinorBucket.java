@@ -0,0 +1,126 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.util.io.Output;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+
+/**
+ * Serialized histories of up to {@link #SIZE} consecutive ids in one value, keyed by {@link #bucket(long)}.
+ * <p>
+ * Layout (big endian): {@code u16 count}, {@code count} slots ({@code id & 0xff}, ascending),
+ * {@code count + 1} int offsets into the data, data. A single history is found with a binary search over
+ * the slots and decoded without touching the other histories of the bucket.
+ */
+public class MinorBucket {
+    public static final int BITS = 8;
+    public static final int SIZE = 1 << BITS;
+
+    private MinorBucket() {
+        // utility class
+    }
+
+    public static long bucket(long id) {
+        return id >>> BITS;
+    }
+
+    private static int slot(long id) {
+        return (int) (id & (SIZE - 1));
+    }
+
+    /**
+     * @return the history of id in the serialized bucket or null if it has none
+     */
+    public static ByteBuffer find(ByteBuffer bucket, long id) {
+        var buffer = bucket.order() == BIG_ENDIAN ? bucket : bucket.duplicate().order(BIG_ENDIAN);
+        var base = buffer.position();
+        var count = Short.toUnsignedInt(buffer.getShort(base));
+        var slot = slot(id);
+        var low = 0;
+        var high = count - 1;
+        while (low <= high) {
+            var mid = (low + high) >>> 1;
+            var s = Byte.toUnsignedInt(buffer.get(base + 2 + mid));
+            if (s < slot) {
+                low = mid + 1;
+            } else if (s > slot) {
+                high = mid - 1;
+            } else {
+                return entry(buffer, base, count, mid);
+            }
+        }
+        return null;
+    }
+
+    private static ByteBuffer entry(ByteBuffer buffer, int base, int count, int i) {
+        var offsets = base + 2 + count;
+        var data = offsets + (count + 1) * Integer.BYTES;
+        var start = buffer.getInt(offsets + i * Integer.BYTES);
+        var end = buffer.getInt(offsets + (i + 1) * Integer.BYTES);
+        return buffer.slice(data + start, end - start);
+    }
+
+    public static class Builder {
+        private final Output data = new Output(4 << 10);
+        private final Output encoded = new Output(4 << 10);
+        private final byte[] slots = new byte[SIZE];
+        private final int[] offsets = new int[SIZE + 1];
+        private int count;
+
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        public void clear() {
+            data.reset();
+            count = 0;
+        }
+
+        /**
+         * Adds the history of an id, ids have to be ascending.
+         */
+        public void add(long id, byte[] value, int offset, int length) {
+            slots[count] = (byte) slot(id);
+            offsets[count++] = data.length;
+            data.write(value, offset, length);
+        }
+
+        /**
+         * Adds all histories of a serialized bucket, e.g. to merge the parts of a bucket written by two chunks.
+         */
+        public void addAll(ByteBuffer bucket) {
+            var buffer = bucket.order() == BIG_ENDIAN ? bucket : bucket.duplicate().order(BIG_ENDIAN);
+            var base = buffer.position();
+            var n = Short.toUnsignedInt(buffer.getShort(base));
+            for (var i = 0; i < n; i++) {
+                var entry = entry(buffer, base, n, i);
+                var bytes = new byte[entry.remaining()];
+                entry.get(bytes);
+                slots[count] = buffer.get(base + 2 + i);
+                offsets[count++] = data.length;
+                data.write(bytes, 0, bytes.length);
+            }
+        }
+
+        /**
+         * @return the serialized bucket in {@code output.array[0, output.length)}, valid until the next call
+         */
+        public Output serialize() {
+            offsets[count] = data.length;
+            encoded.reset();
+            encoded.write(count >>> 8);
+            encoded.write(count);
+            encoded.write(slots, 0, count);
+            for (var i = 0; i <= count; i++) {
+                var offset = offsets[i];
+                encoded.write(offset >>> 24);
+                encoded.write(offset >>> 16);
+                encoded.write(offset >>> 8);
+                encoded.write(offset);
+            }
+            encoded.write(data.array, 0, data.length);
+            return encoded;
+        }
+    }
+}
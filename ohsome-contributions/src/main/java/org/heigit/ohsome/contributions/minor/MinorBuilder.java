@@ -10,4 +10,14 @@ public interface MinorBuilder<T extends OSMEntity> {
     void add(T entity) throws IOException;
 
     void serialize(Output output) throws IOException;
+
+    /**
+     * Adds the users of the serialized versions, their names are not part of the serialization.
+     */
+    void addUsers(UserDictionary.Builder users);
+
+    /**
+     * Resets the builder, so it can be reused for the next entity history.
+     */
+    void clear();
 }
@@ -0,0 +1,131 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.osm.OSMEntity.OSMNode;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Least recently used cache of decoded minor histories in front of a {@link MinorStore}.
+ * <p>
+ * Consecutive batches of a worker share many members, e.g. the nodes of junctions and polygon borders, only
+ * ids missing in the cache are fetched from the store. The cache is bounded by the total weight of its histories,
+ * e.g. their number of versions. An instance is not thread safe, every worker has to use its own.
+ */
+public class MinorCache<T> {
+    private final MinorStore store;
+    private final BiFunction<Long, ByteBuffer, T> deserializer;
+    private final ToIntFunction<T> weigher;
+    private final long maxWeight;
+    private final LinkedHashMap<Long, T> cache = new LinkedHashMap<>(1024, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxWeight maximum total weight of the cached histories, 0 disables the cache
+     */
+    public MinorCache(MinorStore store, BiFunction<Long, ByteBuffer, T> deserializer, ToIntFunction<T> weigher, long maxWeight) {
+        this.store = store;
+        this.deserializer = deserializer;
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @return cache of minor node histories weighted by their number of versions
+     */
+    public static MinorCache<List<OSMNode>> nodes(MinorStore store, long maxVersions) {
+        return new MinorCache<>(store, MinorNode::deserialize, List::size, maxVersions);
+    }
+
+    /**
+     * @return the histories of all ids with a history, ids without a history are not cached
+     */
+    public Map<Long, T> get(Collection<Long> ids) {
+        if (maxWeight <= 0) {
+            misses += ids.size();
+            return store.get(ids, deserializer);
+        }
+        var result = HashMap.<Long, T>newHashMap(ids.size());
+        var missing = new ArrayList<Long>();
+        for (var id : ids) {
+            var value = cache.get(id);
+            if (value != null) {
+                result.put(id, value);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits += result.size();
+        misses += missing.size();
+        if (!missing.isEmpty()) {
+            var loaded = store.get(missing, deserializer);
+            result.putAll(loaded);
+            loaded.forEach(this::put);
+        }
+        return result;
+    }
+
+    private void put(Long id, T value) {
+        var old = cache.put(id, value);
+        if (old != null) {
+            weight -= weigher.applyAsInt(old);
+        }
+        weight += weigher.applyAsInt(value);
+        var iterator = cache.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= weigher.applyAsInt(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Sums the counters of the caches of several workers.
+     */
+    public static class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public void add(MinorCache<?> cache) {
+            hits.add(cache.hits());
+            misses.add(cache.misses());
+            evictions.add(cache.evictions());
+        }
+
+        @Override
+        public String toString() {
+            var lookups = hits.sum() + misses.sum();
+            return "hits=%d, misses=%d, evictions=%d, hit rate=%.1f%%".formatted(hits.sum(), misses.sum(),
+                    evictions.sum(), lookups == 0 ? 0.0 : 100.0 * hits.sum() / lookups);
+        }
+    }
+}
@@ -5,8 +5,8 @@ import org.heigit.ohsome.util.io.Output;
 import org.heigit.ohsome.osm.OSMEntity.OSMNode;
 
 import java.nio.ByteBuffer;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static java.util.Collections.emptyMap;
@@ -22,7 +22,11 @@ public class MinorNode {
     }
 
     public static List<OSMNode> deserialize(long id, byte[] bytes) {
-        var input = Input.fromBuffer(ByteBuffer.wrap(bytes));
+        return deserialize(id, ByteBuffer.wrap(bytes));
+    }
+
+    public static List<OSMNode> deserialize(long id, ByteBuffer buffer) {
+        var input = Input.fromBuffer(buffer);
         var size = input.readU32();
         var cs = 0L;
         var ts = 0L;
@@ -34,40 +38,90 @@ public class MinorNode {
             cs += input.readS64();
             ts += input.readS64();
             var userId = input.readU32();
-            var userName = input.readUTF8();
             var deltaLon = input.readS64();
             var deltaLat = input.readS64();
             lon += deltaLon;
             lat += deltaLat;
             visible = deltaLon != 0 || deltaLat != 0 | !visible;
-            osh.add(new OSMNode(id, i, Instant.ofEpochSecond(ts), cs, userId, userName, visible, emptyMap(), lon / 1_0000000.0, lat / 1_0000000.0));
+            osh.add(new OSMNode(id, i, ts, cs, userId, null, visible, emptyMap(), lon / 1_0000000.0, lat / 1_0000000.0));
         }
 
         return osh;
     }
 
     public static class Builder implements MinorBuilder<OSMNode> {
-        private final List<OSMNode> versions = new ArrayList<>();
+        private long[] changesets = new long[16];
+        private long[] timestamps = new long[16];
+        private int[] userIds = new int[16];
+        private String[] userNames = new String[16];
+        private long[] lons = new long[16];
+        private long[] lats = new long[16];
+        private int size = 0;
+
         private boolean visible = false;
         private double lon = Double.NaN;
         private double lat = Double.NaN;
 
         public void add(OSMNode node) {
-            if (node.visible() || visible) {
-                if (!node.visible() || !visible || node.lon() != lon && node.lat() != lat) {
-                    versions.add(node);
-                    lon = node.lon();
-                    lat = node.lat();
+            add(node.changeset(), node.timestamp(), node.userId(), node.user(), node.visible(), node.lon(), node.lat());
+        }
+
+        /**
+         * Adds a version without materializing an {@link OSMNode}.
+         *
+         * @param timestamp epoch seconds
+         */
+        public void add(long changeset, long timestamp, int userId, String user, boolean visible, double lon, double lat) {
+            if (visible || this.visible) {
+                if (!visible || !this.visible || lon != this.lon && lat != this.lat) {
+                    append(changeset, timestamp, userId, user, lon, lat);
+                    this.lon = lon;
+                    this.lat = lat;
                 }
-                visible = node.visible();
+                this.visible = visible;
             }
         }
-        public void serialize(Output output) {
-            serialize(output, versions);
+
+        private void append(long changeset, long timestamp, int userId, String user, double lon, double lat) {
+            if (size == changesets.length) {
+                grow();
+            }
+            changesets[size] = changeset;
+            timestamps[size] = timestamp;
+            userIds[size] = userId;
+            userNames[size] = user;
+            lons[size] = Math.round(lon * 1_0000000L);
+            lats[size] = Math.round(lat * 1_0000000L);
+            size++;
         }
 
-        public static void serialize(Output output, List<OSMNode> versions) {
-            var size = versions.size();
+        private void grow() {
+            var capacity = size * 2;
+            changesets = Arrays.copyOf(changesets, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            userNames = Arrays.copyOf(userNames, capacity);
+            lons = Arrays.copyOf(lons, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(userNames, 0, size, null);
+            size = 0;
+            visible = false;
+            lon = Double.NaN;
+            lat = Double.NaN;
+        }
+
+        @Override
+        public void addUsers(UserDictionary.Builder users) {
+            for (var i = 0; i < size; i++) {
+                users.add(userIds[i], userNames[i], timestamps[i]);
+            }
+        }
+
+        public void serialize(Output output) {
             if (size == 0) {
                 return;
             }
@@ -76,25 +130,25 @@ public class MinorNode {
             var lon = 0L;
             var lat = 0L;
             output.writeU32(size);
+            for (var i = 0; i < size; i++) {
+                output.writeS64(changesets[i] - cs);
+                cs = changesets[i];
+                output.writeS64(timestamps[i] - ts);
+                ts = timestamps[i];
+                output.writeU32(userIds[i]);
+                output.writeS64(lons[i] - lon);
+                lon = lons[i];
+                output.writeS64(lats[i] - lat);
+                lat = lats[i];
+            }
+        }
+
+        public static void serialize(Output output, List<OSMNode> versions) {
+            var builder = new Builder();
             for (var version : versions) {
-                var changeset = version.changeset();
-                output.writeS64(changeset - cs);
-                cs = changeset;
-                var timestamp = version.timestamp();
-                output.writeS64(timestamp.getEpochSecond() - ts);
-                ts = timestamp.getEpochSecond();
-
-                var userId = version.userId();
-                var userName = version.user();
-                output.writeU32(userId);
-                output.writeUTF8(userName);
-                var l = Math.round((version.lon() * 1_0000000L));
-                output.writeS64(l - lon);
-                lon = l;
-                l = Math.round(version.lat() * 1_0000000L);
-                output.writeS64(l - lat);
-                lat = l;
+                builder.append(version.changeset(), version.timestamp(), version.userId(), version.user(), version.lon(), version.lat());
             }
+            builder.serialize(output);
         }
     }
 
@@ -0,0 +1,107 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Lookup of serialized minor histories ({@link MinorNode}, {@link MinorWay}) by id.
+ */
+public interface MinorStore extends AutoCloseable {
+
+    /**
+     * @param rocks    options of the sst files and stores of the {@link Backend#ROCKSDB} backend
+     * @param bucketed store {@link MinorBucket}s of consecutive ids instead of single histories in RocksDB
+     */
+    record Config(Backend backend, RocksUtil.ReadProfile rocks, boolean bucketed) {
+
+        public Config(Backend backend, RocksUtil.ReadProfile rocks) {
+            this(backend, rocks, false);
+        }
+
+        public MinorWriter writer(Path path, int chunk) throws IOException {
+            return backend.writer(path, chunk, this);
+        }
+
+        public void finish(Path path) throws IOException {
+            backend.finish(path, this);
+        }
+
+        public MinorStore open(Path path) throws IOException {
+            return backend.open(path, this);
+        }
+    }
+
+    enum Backend {
+        /**
+         * One sst file per chunk, ingested into a RocksDB.
+         */
+        ROCKSDB {
+            @Override
+            public MinorWriter writer(Path path, int chunk, Config config) throws IOException {
+                // no cache and statistics needed for writing
+                var profile = new RocksUtil.ReadProfile(null, config.rocks().partitionedFilters(), null);
+                var writer = new SstWriter(RocksMinorStore.ingestPath(path, chunk), profile);
+                return config.bucketed() ? new BucketWriter(writer, RocksMinorStore.boundaryPath(path, chunk)) : writer;
+            }
+
+            @Override
+            public void finish(Path path, Config config) throws IOException {
+                RocksMinorStore.ingest(path, config.rocks());
+            }
+
+            @Override
+            public MinorStore open(Path path, Config config) throws IOException {
+                return RocksMinorStore.open(path, config.rocks(), config.bucketed());
+            }
+        },
+
+        /**
+         * One memory mapped, id indexed offset array and log of histories per chunk, see {@link DenseMinorStore}.
+         */
+        DENSE {
+            @Override
+            public MinorWriter writer(Path path, int chunk, Config config) {
+                return new DenseMinorWriter(path, chunk);
+            }
+
+            @Override
+            public void finish(Path path, Config config) {
+                // the chunk files are read as they are
+            }
+
+            @Override
+            public MinorStore open(Path path, Config config) throws IOException {
+                return DenseMinorStore.open(path);
+            }
+        };
+
+        /**
+         * @return writer for the histories of one chunk, chunks must cover disjoint id ranges
+         */
+        public abstract MinorWriter writer(Path path, int chunk, Config config) throws IOException;
+
+        /**
+         * Called once after the writers of all chunks are closed.
+         */
+        public abstract void finish(Path path, Config config) throws IOException;
+
+        public abstract MinorStore open(Path path, Config config) throws IOException;
+    }
+
+    /**
+     * Can be called concurrently.
+     *
+     * @param deserializer decodes a serialized history, the buffer is only valid during the call
+     * @return the deserialized histories of all ids with a history
+     */
+    <T> Map<Long, T> get(Collection<Long> ids, BiFunction<Long, ByteBuffer, T> deserializer);
+
+    @Override
+    void close();
+}
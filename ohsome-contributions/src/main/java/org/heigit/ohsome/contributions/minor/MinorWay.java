@@ -1,15 +1,16 @@
 package org.heigit.ohsome.contributions.minor;
 
-import com.google.common.collect.Maps;
 import org.heigit.ohsome.util.io.Input;
 import org.heigit.ohsome.util.io.Output;
+import org.heigit.ohsome.osm.LongList;
 import org.heigit.ohsome.osm.OSMEntity.OSMWay;
 
 import java.nio.ByteBuffer;
-import java.time.Instant;
 import java.util.*;
+import java.util.function.LongConsumer;
 
 public class MinorWay {
+    private static final ThreadLocal<Decoder> DECODERS = ThreadLocal.withInitial(Decoder::new);
 
     private MinorWay() {
         // utility class
@@ -21,100 +22,260 @@ public class MinorWay {
     }
 
     public static List<OSMWay> deserialize(Long id, byte[] bytes) {
-        var input = Input.fromBuffer(ByteBuffer.wrap(bytes));
-        var size = input.readU32();
-        var refSize = input.readU32();
-        var map = Maps.<Integer, Long>newHashMapWithExpectedSize(refSize);
-        var ref = 0L;
-        for(var i=0; i< refSize; i++) {
-            ref += input.readU64();
-            map.put(i, ref);
-        }
-        var cs = 0L;
-        var ts = 0L;
-        var userId = 0;
-        var userName = "";
-        var osh = new ArrayList<OSMWay>(size);
-        for (var i = 0; i < size; i++) {
-            cs += input.readS64();
-            ts += input.readS64();
-            userId = input.readU32();
-            userName = input.readUTF8();
-            var length = input.readU32();
-            var refs = new ArrayList<Long>(length);
-            for(var r = 0; r < length; r++) {
-                refs.add(map.get(input.readU32()));
-            }
-            osh.add(new OSMWay(id, i, Instant.ofEpochSecond(ts), cs, userId, userName, true, Map.of(),refs));
-        }
-        return osh;
+        return deserialize(id, ByteBuffer.wrap(bytes));
     }
 
-    public static class Builder implements MinorBuilder<OSMWay> {
-        private final Set<Long> oshRefs = new TreeSet<>();
-        private final List<Long> changesets = new ArrayList<>();
-        private final List<Instant> timestamps = new ArrayList<>();
-        private final List<Integer> userIds = new ArrayList<>();
-        private final List<String> userNames = new ArrayList<>();
+    public static List<OSMWay> deserialize(Long id, ByteBuffer buffer) {
+        return DECODERS.get().decode(buffer).ways(id);
+    }
+
+    /**
+     * Decodes the history and passes its distinct node ids to {@code refs} in the same pass.
+     */
+    public static List<OSMWay> deserialize(Long id, ByteBuffer buffer, LongConsumer refs) {
+        var decoder = DECODERS.get().decode(buffer);
+        for (var i = 0; i < decoder.tableSize(); i++) {
+            refs.accept(decoder.table()[i]);
+        }
+        return decoder.ways(id);
+    }
+
+    /**
+     * Reusable decoder of a serialized minor way history.
+     * <p>
+     * The distinct node ids of all versions are read into the ref table {@link #table()}, the refs of a version
+     * are indexes into this table, {@code table()[indexes()[refOffset(v)]]} to
+     * {@code table()[indexes()[refOffset(v + 1) - 1]]}. Decoding allocates nothing once the arrays are large enough.
+     * An instance is not thread safe.
+     */
+    public static class Decoder {
+        private long[] table = new long[256];
+        private int tableSize;
+        private int[] indexes = new int[256];
+        private int[] refOffsets = new int[17];
+        private long[] changesets = new long[16];
+        private long[] timestamps = new long[16];
+        private int[] userIds = new int[16];
+        private int size;
+
+        public Decoder decode(ByteBuffer buffer) {
+            var input = Input.fromBuffer(buffer);
+            size = input.readU32();
+            tableSize = input.readU32();
+            if (table.length < tableSize) {
+                table = new long[Math.max(tableSize, table.length * 2)];
+            }
+            var ref = 0L;
+            for (var i = 0; i < tableSize; i++) {
+                ref += input.readU64();
+                table[i] = ref;
+            }
+            if (changesets.length < size) {
+                var capacity = Math.max(size, changesets.length * 2);
+                changesets = new long[capacity];
+                timestamps = new long[capacity];
+                userIds = new int[capacity];
+                refOffsets = new int[capacity + 1];
+            }
+            var cs = 0L;
+            var ts = 0L;
+            var offset = 0;
+            for (var i = 0; i < size; i++) {
+                cs += input.readS64();
+                ts += input.readS64();
+                changesets[i] = cs;
+                timestamps[i] = ts;
+                userIds[i] = input.readU32();
+                var length = input.readU32();
+                if (indexes.length < offset + length) {
+                    indexes = Arrays.copyOf(indexes, Math.max(offset + length, indexes.length * 2));
+                }
+                refOffsets[i] = offset;
+                for (var r = 0; r < length; r++) {
+                    indexes[offset++] = input.readU32();
+                }
+            }
+            refOffsets[size] = offset;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return distinct node ids of all versions in ascending order, only the first {@link #tableSize()} are valid
+         */
+        public long[] table() {
+            return table;
+        }
+
+        public int tableSize() {
+            return tableSize;
+        }
+
+        /**
+         * @return indexes into the {@link #table()} of the refs of all versions
+         */
+        public int[] indexes() {
+            return indexes;
+        }
+
+        public int refOffset(int version) {
+            return refOffsets[version];
+        }
+
+        public int refCount(int version) {
+            return refOffsets[version + 1] - refOffsets[version];
+        }
+
+        public long changeset(int version) {
+            return changesets[version];
+        }
+
+        /**
+         * @return epoch seconds
+         */
+        public long timestamp(int version) {
+            return timestamps[version];
+        }
 
-        private final List<List<Long>> allRefs = new ArrayList<>();
+        public int userId(int version) {
+            return userIds[version];
+        }
+
+        /**
+         * Materializes the versions, their refs share a single array.
+         */
+        public List<OSMWay> ways(long id) {
+            var total = refOffsets[size];
+            var refs = new long[total];
+            for (var r = 0; r < total; r++) {
+                refs[r] = table[indexes[r]];
+            }
+            var osh = new ArrayList<OSMWay>(size);
+            for (var i = 0; i < size; i++) {
+                var wayRefs = LongList.wrap(refs, refOffsets[i], refOffsets[i + 1]);
+                osh.add(new OSMWay(id, i, timestamps[i], changesets[i], userIds[i], null, true, Map.of(), wayRefs, null, null));
+            }
+            return osh;
+        }
+    }
+
+    public static class Builder implements MinorBuilder<OSMWay> {
+        private long[] changesets = new long[16];
+        private long[] timestamps = new long[16];
+        private int[] userIds = new int[16];
+        private String[] userNames = new String[16];
+        // refs of the i-th version are refs[refOffsets[i]] to refs[refOffsets[i + 1]]
+        private int[] refOffsets = new int[17];
+        private long[] refs = new long[256];
+        private long[] scratch = new long[256];
+        private int size = 0;
 
         private Builder() {
             clear();
         }
 
+        @Override
         public void clear() {
-            oshRefs.clear();
-            changesets.clear();
-            timestamps.clear();
-            userIds.clear();
-            userNames.clear();
-            allRefs.clear();
-            allRefs.add(List.of());
+            Arrays.fill(userNames, 0, size, null);
+            size = 0;
         }
 
         public void add(OSMWay way) {
-            if (!way.visible()) {
-               changesets.add(way.changeset());
-               timestamps.add(way.timestamp());
-               userIds.add(way.userId());
-               userNames.add(way.user());
-               allRefs.add(List.of());
-            } else if (!way.refs().equals(allRefs.getLast())){
-                changesets.add(way.changeset());
-                timestamps.add(way.timestamp());
-                userIds.add(way.userId());
-                userNames.add(way.user());
-                allRefs.add(way.refs());
-                oshRefs.addAll(way.refs());
+            var wayRefs = way.refs();
+            if (scratch.length < wayRefs.size()) {
+                scratch = new long[wayRefs.size()];
+            }
+            wayRefs.copyTo(scratch, 0);
+            add(way.changeset(), way.timestamp(), way.userId(), way.user(), way.visible(), scratch, 0, wayRefs.size());
+        }
+
+        /**
+         * Adds a version without materializing an {@link OSMWay}.
+         *
+         * @param timestamp epoch seconds
+         * @param wayRefs   node ids, only wayRefs[refOffset] to wayRefs[refOffset + refCount] are used
+         */
+        public void add(long changeset, long timestamp, int userId, String user, boolean visible, long[] wayRefs, int refOffset, int refCount) {
+            if (!visible) {
+                append(changeset, timestamp, userId, user, wayRefs, refOffset, 0);
+            } else if (!sameAsLast(wayRefs, refOffset, refCount)) {
+                append(changeset, timestamp, userId, user, wayRefs, refOffset, refCount);
+            }
+        }
+
+        private boolean sameAsLast(long[] wayRefs, int refOffset, int refCount) {
+            if (size == 0) {
+                return refCount == 0;
+            }
+            var from = refOffsets[size - 1];
+            var to = refOffsets[size];
+            return Arrays.equals(refs, from, to, wayRefs, refOffset, refOffset + refCount);
+        }
+
+        private void append(long changeset, long timestamp, int userId, String user, long[] wayRefs, int refOffset, int refCount) {
+            if (size == changesets.length) {
+                var capacity = size * 2;
+                changesets = Arrays.copyOf(changesets, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                userIds = Arrays.copyOf(userIds, capacity);
+                userNames = Arrays.copyOf(userNames, capacity);
+                refOffsets = Arrays.copyOf(refOffsets, capacity + 1);
+            }
+            var offset = refOffsets[size];
+            if (offset + refCount > refs.length) {
+                refs = Arrays.copyOf(refs, Math.max(refs.length * 2, offset + refCount));
+            }
+            System.arraycopy(wayRefs, refOffset, refs, offset, refCount);
+            changesets[size] = changeset;
+            timestamps[size] = timestamp;
+            userIds[size] = userId;
+            userNames[size] = user;
+            refOffsets[++size] = offset + refCount;
+        }
+
+        @Override
+        public void addUsers(UserDictionary.Builder users) {
+            for (var i = 0; i < size; i++) {
+                users.add(userIds[i], userNames[i], timestamps[i]);
             }
         }
 
         public void serialize(Output output) {
-            var size = changesets.size();
+            var total = refOffsets[size];
+            if (scratch.length < total) {
+                scratch = new long[total];
+            }
+            System.arraycopy(refs, 0, scratch, 0, total);
+            Arrays.sort(scratch, 0, total);
+            var unique = 0;
+            for (var i = 0; i < total; i++) {
+                if (unique == 0 || scratch[unique - 1] != scratch[i]) {
+                    scratch[unique++] = scratch[i];
+                }
+            }
+
             output.writeU32(size);
-            output.writeU32(oshRefs.size());
+            output.writeU32(unique);
             var lastRef = 0L;
-            var map = Maps.<Long, Integer>newHashMapWithExpectedSize(oshRefs.size());
-            for (var ref : oshRefs) {
-                output.writeU64(ref - lastRef);
-                lastRef = ref;
-                map.put(ref, map.size());
+            for (var i = 0; i < unique; i++) {
+                output.writeU64(scratch[i] - lastRef);
+                lastRef = scratch[i];
             }
 
             var cs = 0L;
             var ts = 0L;
             for (var i = 0; i < size; i++) {
-                output.writeS64(changesets.get(i) - cs);
-                cs = changesets.get(i);
-                output.writeS64(timestamps.get(i).getEpochSecond() - ts);
-                ts = timestamps.get(i).getEpochSecond();
-                output.writeU32(userIds.get(i));
-                output.writeUTF8(userNames.get(i));
-                var refs = allRefs.get(i+1);
-                output.writeU32(refs.size());
-                for(var ref : refs) {
-                    output.writeU32(map.get(ref));
+                output.writeS64(changesets[i] - cs);
+                cs = changesets[i];
+                output.writeS64(timestamps[i] - ts);
+                ts = timestamps[i];
+                output.writeU32(userIds[i]);
+                output.writeU32(refOffsets[i + 1] - refOffsets[i]);
+                for (var r = refOffsets[i]; r < refOffsets[i + 1]; r++) {
+                    output.writeU32(Arrays.binarySearch(scratch, 0, unique, refs[r]));
                 }
             }
         }
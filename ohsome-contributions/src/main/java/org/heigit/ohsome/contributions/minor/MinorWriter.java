@@ -0,0 +1,87 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.contributions.util.OSHCursor;
+import org.heigit.ohsome.util.io.Output;
+import org.heigit.ohsome.osm.OSMEntity;
+import org.heigit.ohsome.osm.OSMEntity.OSMNode;
+import org.heigit.ohsome.osm.OSMEntity.OSMWay;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serializes minor node and way histories of one chunk for a {@link MinorStore}.
+ * Histories are written in ascending id order, histories without any version are skipped.
+ * The names of the users are collected in {@link #users()} instead of being serialized with every version.
+ */
+public abstract class MinorWriter implements AutoCloseable {
+    private final Output output = new Output(4 << 10);
+
+    private final MinorNode.Builder minorNodeBuilder = MinorNode.newBuilder();
+    private final MinorWay.Builder minorWayBuilder = MinorWay.newBuilder();
+    private final UserDictionary.Builder users = new UserDictionary.Builder();
+
+    protected abstract void put(long id, byte[] value, int length) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    /**
+     * @return the users of all written versions
+     */
+    public UserDictionary.Builder users() {
+        return users;
+    }
+
+    public void writeMinorNode(List<OSMNode> osh) throws IOException {
+        var id = osh.getFirst().id();
+        write(id, osh, minorNodeBuilder);
+    }
+
+    /**
+     * Writes the minor node history of the current history of the cursor without materializing its versions.
+     */
+    public void writeMinorNode(OSHCursor osh) throws IOException {
+        minorNodeBuilder.clear();
+        for (var i = 0; i < osh.size(); i++) {
+            minorNodeBuilder.add(osh.changeset(i), osh.timestamp(i) / 1000, osh.userId(i), osh.user(i), osh.visible(i),
+                    osh.lon(i), osh.lat(i));
+        }
+        write(osh.id(), minorNodeBuilder);
+    }
+
+    private <T extends OSMEntity> void write(long id, List<T> osh, MinorBuilder<T> builder) throws IOException {
+        builder.clear();
+        for (T osm : osh) {
+            builder.add(osm);
+        }
+        write(id, builder);
+    }
+
+    private void write(long id, MinorBuilder<?> builder) throws IOException {
+        output.reset();
+        builder.serialize(output);
+        if (output.length == 0) {
+            return;
+        }
+        put(id, output.array, output.length);
+        builder.addUsers(users);
+    }
+
+    public void writeMinorWay(List<OSMWay> osh) throws IOException {
+        var id = osh.getFirst().id();
+        write(id, osh, minorWayBuilder);
+    }
+
+    /**
+     * Writes the minor way history of the current history of the cursor without materializing its versions.
+     */
+    public void writeMinorWay(OSHCursor osh) throws IOException {
+        minorWayBuilder.clear();
+        for (var i = 0; i < osh.size(); i++) {
+            minorWayBuilder.add(osh.changeset(i), osh.timestamp(i) / 1000, osh.userId(i), osh.user(i), osh.visible(i),
+                    osh.refs(), osh.refOffset(i), osh.refCount(i));
+        }
+        write(osh.id(), minorWayBuilder);
+    }
+}
@@ -0,0 +1,138 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.heigit.ohsome.contributions.util.RocksMap;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public class RocksMinorStore implements MinorStore {
+    private final Options options;
+    private final RocksDB db;
+    private final boolean bucketed;
+    // lookups reuse their buffers, so every thread gets its own
+    private final ThreadLocal<RocksMap> lookups;
+
+    private RocksMinorStore(Options options, RocksDB db, boolean bucketed) {
+        this.options = options;
+        this.db = db;
+        this.bucketed = bucketed;
+        // buckets are larger than single histories, so use fewer but larger value buffers
+        this.lookups = ThreadLocal.withInitial(() -> bucketed
+                ? new RocksMap(db, RocksMap.DEFAULT_BATCH_SIZE / 8, RocksMap.DEFAULT_VALUE_SIZE * 8)
+                : new RocksMap(db));
+    }
+
+    /**
+     * @param bucketed the values are {@link MinorBucket}s written by a {@link BucketWriter}
+     */
+    public static RocksMinorStore open(Path path, RocksUtil.ReadProfile profile, boolean bucketed) throws IOException {
+        var options = RocksUtil.readProfile(profile).setCreateIfMissing(true);
+        try {
+            return new RocksMinorStore(options, RocksDB.open(options, path.toString()), bucketed);
+        } catch (RocksDBException e) {
+            options.close();
+            throw new IOException(e);
+        }
+    }
+
+    static Path ingestPath(Path path, int chunk) {
+        return path.resolve("ingest").resolve("minor-%05d.sst".formatted(chunk));
+    }
+
+    static Path boundaryPath(Path path, int chunk) {
+        return path.resolve("ingest").resolve("minor-%05d.boundary".formatted(chunk));
+    }
+
+    /**
+     * @return the chunk of a file named by {@link #ingestPath} or {@link #boundaryPath}
+     */
+    static int chunk(Path file) {
+        var name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("minor-".length(), name.lastIndexOf('.')));
+    }
+
+    /**
+     * Moves the sst files of all chunks from {@code path/ingest} into the RocksDB at {@code path}.
+     * Bucketed stores get an additional sst file with the merged boundary buckets of all chunks.
+     */
+    public static void ingest(Path path, RocksUtil.ReadProfile profile) throws IOException {
+        var ingest = path.resolve("ingest");
+        List<Path> boundaries;
+        try (var files = Files.list(ingest)) {
+            // names are zero padded to a fixed width, beyond it their order is not the order of the chunks
+            boundaries = files.filter(file -> file.toString().endsWith(".boundary"))
+                    .sorted(Comparator.comparingInt(RocksMinorStore::chunk)).toList();
+        }
+        var merged = path.resolve("boundary").resolve("minor-boundary.sst");
+        if (!boundaries.isEmpty()) {
+            var writeProfile = new RocksUtil.ReadProfile(null, profile.partitionedFilters(), null);
+            try (var writer = new SstWriter(merged, writeProfile)) {
+                BucketWriter.mergeBoundaries(boundaries, writer);
+            }
+            for (var boundary : boundaries) {
+                Files.delete(boundary);
+            }
+        }
+
+        try (var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
+             var rocksDb = RocksDB.open(options, path.toString());
+             var ifo = new IngestExternalFileOptions()) {
+            ifo.setMoveFiles(true);
+            ifo.setWriteGlobalSeqno(false);
+            try (var files = Files.list(ingest)) {
+                var ssts = files.map(Path::toAbsolutePath).map(Path::toString).toList();
+                if (!ssts.isEmpty()) {
+                    rocksDb.ingestExternalFile(ssts, ifo);
+                }
+            }
+            // overlaps the key ranges of the chunks, so it has to be ingested on its own
+            if (Files.exists(merged)) {
+                rocksDb.ingestExternalFile(List.of(merged.toAbsolutePath().toString()), ifo);
+            }
+        } catch (RocksDBException e) {
+            throw new IOException(e);
+        }
+        Files.deleteIfExists(ingest);
+        Files.deleteIfExists(merged.getParent());
+    }
+
+    @Override
+    public <T> Map<Long, T> get(Collection<Long> ids, BiFunction<Long, ByteBuffer, T> deserializer) {
+        if (!bucketed) {
+            return lookups.get().get(ids, deserializer);
+        }
+        var sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        var buckets = Arrays.stream(sorted).map(MinorBucket::bucket).distinct().boxed().toList();
+        var map = HashMap.<Long, T>newHashMap(sorted.length);
+        lookups.get().forEach(buckets, (bucket, value) -> {
+            var i = Arrays.binarySearch(sorted, bucket << MinorBucket.BITS);
+            for (i = i < 0 ? -i - 1 : i; i < sorted.length && MinorBucket.bucket(sorted[i]) == bucket; i++) {
+                var history = MinorBucket.find(value, sorted[i]);
+                if (history != null) {
+                    map.put(sorted[i], deserializer.apply(sorted[i], history));
+                }
+            }
+        });
+        return map;
+    }
+
+    @Override
+    public void close() {
+        db.close();
+        options.close();
+    }
+}
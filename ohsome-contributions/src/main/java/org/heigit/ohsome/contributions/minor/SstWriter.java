@@ -1,9 +1,8 @@
 package org.heigit.ohsome.contributions.minor;
 
-import org.heigit.ohsome.util.io.Output;
-import org.heigit.ohsome.osm.OSMEntity;
-import org.heigit.ohsome.osm.OSMEntity.OSMNode;
-import org.heigit.ohsome.osm.OSMEntity.OSMWay;
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.SstFileWriter;
 
@@ -12,60 +11,64 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
-public class SstWriter implements AutoCloseable {
+/**
+ * Writes the minor histories of one chunk into a sst file, which is ingested into a RocksDB afterward.
+ */
+public class SstWriter extends MinorWriter {
+    private final Path path;
+    private final Options options;
+    private final EnvOptions env;
     private final SstFileWriter writer;
-    private final Output output = new Output(4 << 10);
     private final ByteBuffer keyBuffer = ByteBuffer.allocateDirect(Long.BYTES).order(ByteOrder.BIG_ENDIAN);
     private ByteBuffer valBuffer = ByteBuffer.allocateDirect(4 << 10); // 4kb
     private long counter = 0;
 
-    public SstWriter(Path path, SstFileWriter writer) throws IOException, RocksDBException {
-        this.writer = writer;
+    public SstWriter(Path path, RocksUtil.ReadProfile profile) throws IOException {
         Files.createDirectories(path.getParent());
-        writer.open(path.toString());
+        this.path = path;
+        this.options = RocksUtil.readProfile(profile);
+        this.env = new EnvOptions();
+        this.writer = new SstFileWriter(env, options);
+        try {
+            writer.open(path.toString());
+        } catch (RocksDBException e) {
+            close();
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    protected void put(long id, byte[] value, int length) throws IOException {
+        keyBuffer.clear().putLong(id).flip();
+        if (length > valBuffer.capacity()) {
+            valBuffer = ByteBuffer.allocateDirect(length);
+        }
+        valBuffer.clear().put(value, 0, length).flip();
+        try {
+            writer.put(keyBuffer, valBuffer);
+        } catch (RocksDBException e) {
+            throw new IOException(e);
+        }
+        counter++;
     }
 
     @Override
-    public void close() throws Exception {
+    public void close() throws IOException {
         try {
             if (counter > 0) {
                 writer.finish();
             }
+        } catch (RocksDBException e) {
+            throw new IOException(e);
         } finally {
             writer.close();
+            env.close();
+            options.close();
+            if (counter == 0) {
+                // an unfinished sst file can not be ingested
+                Files.deleteIfExists(path);
+            }
         }
     }
-
-    public void writeMinorNode(List<OSMNode> osh) throws RocksDBException, IOException {
-        var id = osh.getFirst().id();
-        var minorNodeBuilder = MinorNode.newBuilder();
-        write(id, osh, minorNodeBuilder);
-    }
-
-    private <T extends OSMEntity> void write(long id, List<T> osh, MinorBuilder<T> builder) throws RocksDBException, IOException {
-        for (T osm : osh) {
-            builder.add(osm);
-        }
-
-        output.reset();
-        builder.serialize(output);
-        if (output.length == 0) {
-            return;
-        }
-        keyBuffer.clear().putLong(id).flip();
-        if (output.length > valBuffer.capacity()) {
-            valBuffer = ByteBuffer.allocateDirect(output.length);
-        }
-        valBuffer.clear().put(output.array, 0, output.length).flip();
-        writer.put(keyBuffer, valBuffer);
-        counter++;
-    }
-
-    public void writeMinorWay(List<OSMWay> osh) throws IOException, RocksDBException {
-        var id = osh.getFirst().id();
-        var minorWayBuilder = MinorWay.newBuilder();
-        write(id, osh, minorWayBuilder);
-    }
 }
@@ -0,0 +1,172 @@
+package org.heigit.ohsome.contributions.minor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * User names of the versions in the minor stores, which only keep the user ids.
+ * <p>
+ * For every user id the dictionary keeps the change log of its names, each name with the first and last
+ * timestamp it was seen with. The name of a version is resolved by its user id and timestamp, so renamed
+ * users still get the name they had at the time of the version. Names are only resolved when a contribution
+ * is converted, a lookup neither decodes nor allocates a string.
+ */
+public class UserDictionary {
+    public static final UserDictionary EMPTY = new Builder().build();
+
+    // names of uids[i] are names[offsets[i]] to names[offsets[i + 1]], ordered by their first timestamp
+    private final int[] uids;
+    private final int[] offsets;
+    private final String[] names;
+    private final long[] firsts;
+    private final long[] lasts;
+
+    private UserDictionary(int[] uids, int[] offsets, String[] names, long[] firsts, long[] lasts) {
+        this.uids = uids;
+        this.offsets = offsets;
+        this.names = names;
+        this.firsts = firsts;
+        this.lasts = lasts;
+    }
+
+    public int size() {
+        return uids.length;
+    }
+
+    /**
+     * @return the latest name of the user or an empty string for an unknown user
+     */
+    public String name(int userId) {
+        var i = Arrays.binarySearch(uids, userId);
+        if (i < 0) {
+            return "";
+        }
+        var latest = offsets[i];
+        for (var n = offsets[i] + 1; n < offsets[i + 1]; n++) {
+            if (lasts[n] >= lasts[latest]) {
+                latest = n;
+            }
+        }
+        return names[latest];
+    }
+
+    /**
+     * @param timestamp epoch seconds
+     * @return the name of the user at the time or an empty string for an unknown user
+     */
+    public String name(int userId, long timestamp) {
+        var i = Arrays.binarySearch(uids, userId);
+        if (i < 0) {
+            return "";
+        }
+        // the latest started name still in use at the time, a name used before and after a rename covers it
+        for (var n = offsets[i + 1] - 1; n >= offsets[i]; n--) {
+            if (firsts[n] <= timestamp && timestamp <= lasts[n]) {
+                return names[n];
+            }
+        }
+        return name(userId);
+    }
+
+    /**
+     * Collects the user names of the versions of one chunk, builders of several chunks are merged
+     * with {@link #merge(Builder)}.
+     */
+    public static class Builder {
+        private final Map<Integer, Span> users = new HashMap<>();
+        // span of the previous call, consecutive versions are mostly of the same user
+        private int previousUserId;
+        private Span previous;
+
+        private static class Span {
+            private final String name;
+            private long first;
+            private long last;
+            private Span next;
+
+            private Span(String name, long timestamp) {
+                this.name = name;
+                this.first = timestamp;
+                this.last = timestamp;
+            }
+        }
+
+        /**
+         * @param timestamp epoch seconds
+         */
+        public void add(int userId, String user, long timestamp) {
+            if (user == null) {
+                return;
+            }
+            add(userId, user, timestamp, timestamp);
+        }
+
+        private void add(int userId, String user, long first, long last) {
+            var span = previous;
+            if (span == null || previousUserId != userId || !span.name.equals(user)) {
+                span = users.computeIfAbsent(userId, uid -> new Span(user, first));
+                while (!span.name.equals(user)) {
+                    if (span.next == null) {
+                        span.next = new Span(user, first);
+                    }
+                    span = span.next;
+                }
+                previousUserId = userId;
+                previous = span;
+            }
+            span.first = Math.min(span.first, first);
+            span.last = Math.max(span.last, last);
+        }
+
+        public synchronized void merge(Builder other) {
+            synchronized (other) {
+                other.users.forEach((userId, span) -> {
+                    for (var s = span; s != null; s = s.next) {
+                        add(userId, s.name, s.first, s.last);
+                    }
+                });
+            }
+        }
+
+        public synchronized UserDictionary build() {
+            var uids = users.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            var offsets = new int[uids.length + 1];
+            var count = 0;
+            for (var i = 0; i < uids.length; i++) {
+                offsets[i] = count;
+                for (var s = users.get(uids[i]); s != null; s = s.next) {
+                    count++;
+                }
+            }
+            offsets[uids.length] = count;
+
+            var names = new String[count];
+            var firsts = new long[count];
+            var lasts = new long[count];
+            var spans = new Span[0];
+            for (var i = 0; i < uids.length; i++) {
+                var size = offsets[i + 1] - offsets[i];
+                if (spans.length < size) {
+                    spans = new Span[size];
+                }
+                var n = 0;
+                for (var s = users.get(uids[i]); s != null; s = s.next) {
+                    spans[n++] = s;
+                }
+                Arrays.sort(spans, 0, size, (a, b) -> Long.compare(a.first, b.first));
+                for (n = 0; n < size; n++) {
+                    names[offsets[i] + n] = spans[n].name;
+                    firsts[offsets[i] + n] = spans[n].first;
+                    lasts[offsets[i] + n] = spans[n].last;
+                }
+            }
+            return new UserDictionary(uids, offsets, names, firsts, lasts);
+        }
+
+        public void clear() {
+            users.clear();
+            previous = null;
+        }
+    }
+}
@@ -18,6 +18,35 @@ public class RocksUtil {
         // utility class
     }
 
+    public enum CacheType {
+        LRU, HYPER_CLOCK;
+
+        public Cache create(long capacity) {
+            return switch (this) {
+                case LRU -> new LRUCache(capacity);
+                case HYPER_CLOCK -> new HyperClockCache(capacity, 0, -1, false);
+            };
+        }
+    }
+
+    /**
+     * Options for stores which are written once and afterward only serve point lookups.
+     *
+     * @param blockCache         shared by all stores opened with this profile, null for a default cache per store
+     * @param partitionedFilters partition filters and index, so only their top level has to stay in memory
+     * @param statistics         collected for all stores opened with this profile, null to disable
+     */
+    public record ReadProfile(Cache blockCache, boolean partitionedFilters, Statistics statistics) {
+
+        public static ReadProfile defaults() {
+            return new ReadProfile(null, false, null);
+        }
+
+        public ReadProfile withStatistics(Statistics statistics) {
+            return new ReadProfile(blockCache, partitionedFilters, statistics);
+        }
+    }
+
     public static Options defaultOptions() {
         return defaultOptions((Cache)null);
     }
@@ -27,6 +56,38 @@ public class RocksUtil {
         return options;
     }
 
+    /**
+     * Filters and index are part of the sst files, so the same profile has to be used for writing and reading.
+     */
+    public static Options readProfile(ReadProfile profile) {
+        var options = new Options();
+        defaultMDBOptions(options);
+        defaultCFOptions(options);
+        defaultMCFOptions(options);
+        var tableOptions = new BlockBasedTableConfig();
+        defaultTableConfig(tableOptions, profile.blockCache());
+        readProfile(tableOptions, profile);
+        // the table factory is created when the config is set, so it has to be complete by then
+        options.setTableFormatConfig(tableOptions);
+        if (profile.statistics() != null) {
+            options.setStatistics(profile.statistics());
+        }
+        return options;
+    }
+
+    public static void readProfile(BlockBasedTableConfig tableOptions, ReadProfile profile) {
+        tableOptions.setFilterPolicy(new BloomFilter(10));
+        tableOptions.setWholeKeyFiltering(true);
+        tableOptions.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableOptions.setPinL0FilterAndIndexBlocksInCache(true);
+        if (profile.partitionedFilters()) {
+            tableOptions.setIndexType(IndexType.kTwoLevelIndexSearch);
+            tableOptions.setPartitionFilters(true);
+            tableOptions.setMetadataBlockSize(4 * KB);
+            tableOptions.setPinTopLevelIndexAndFilter(true);
+        }
+    }
+
     public static void defaultOptions(DBOptions options) {
         defaultMDBOptions(options);
     }
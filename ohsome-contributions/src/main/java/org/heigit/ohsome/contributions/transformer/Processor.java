@@ -1,13 +1,20 @@
 package org.heigit.ohsome.contributions.transformer;
 
 import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
 
-import java.nio.channels.FileChannel;
 import java.util.List;
 
-public record Processor(int id, OSMPbf pbf, FileChannel ch, List<BlobHeader> blobs, int offset, int limit) {
+public record Processor(int id, OSMPbf pbf, BlockPrefetcher prefetcher, List<BlobHeader> blobs, int offset, int limit) {
     public boolean isWithHistory() {
         return pbf.header().withHistory();
     }
+
+    /**
+     * @return the prefetched blocks of this chunk
+     */
+    public BlockPrefetcher.Blocks blocks() {
+        return prefetcher.blocks(blobs, offset, limit);
+    }
 }
@@ -0,0 +1,95 @@
+package org.heigit.ohsome.contributions.transformer;
+
+import org.heigit.ohsome.contributions.spatialjoin.SpatialJoiner;
+import org.heigit.ohsome.contributions.util.LongBitmap;
+import org.heigit.ohsome.contributions.util.Progress;
+import org.heigit.ohsome.osm.OSMType;
+import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
+import org.heigit.ohsome.osm.pbf.EntityCursor;
+import org.heigit.ohsome.osm.pbf.KeyFilter;
+import org.heigit.ohsome.osm.pbf.OSMPbf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the ids referenced by all versions of one entity type, the node refs of ways or the members of
+ * relations, with the same block pipeline as the other stages but without decoding any entity.
+ */
+public class ReferenceScanner extends Transformer {
+    private final OSMType referenced;
+    private final LongBitmap.Builder ids;
+
+    private ReferenceScanner(OSMType type, OSMType referenced, OSMPbf pbf, int parallel, BlockPrefetcher.Config prefetch, LongBitmap.Builder ids) {
+        super(type, pbf, Path.of(""), parallel, SpatialJoiner.noop(), null, KeyFilter.none(), prefetch);
+        this.referenced = referenced;
+        this.ids = ids;
+    }
+
+    /**
+     * @param type       {@link OSMType#WAY} or {@link OSMType#RELATION}, the type of the scanned blocks
+     * @param referenced type of the collected ids, node refs of ways or members of relations
+     */
+    public static LongBitmap scan(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, OSMType type, OSMType referenced,
+                                  int parallel, BlockPrefetcher.Config prefetch) throws IOException {
+        var ids = LongBitmap.builder();
+        scan(pbf, blobsByType, type, referenced, parallel, prefetch, ids);
+        return ids.build();
+    }
+
+    /**
+     * Adds the collected ids to {@code ids}, so the references of several types can be combined.
+     */
+    public static void scan(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, OSMType type, OSMType referenced,
+                            int parallel, BlockPrefetcher.Config prefetch, LongBitmap.Builder ids) throws IOException {
+        if (blobsByType.getOrDefault(type, List.of()).isEmpty()) {
+            return;
+        }
+        new ReferenceScanner(type, referenced, pbf, parallel, prefetch, ids).process(blobsByType);
+    }
+
+    @Override
+    protected void process(Processor processor, Progress progress) {
+        var chunkIds = LongBitmap.builder();
+        try (var blocks = processor.blocks()) {
+            // only the blocks of the chunk, versions are scanned independent of their histories
+            while (blocks.index() < blocks.to()) {
+                var block = blocks.next();
+                try {
+                    var cursor = block.cursor();
+                    while (cursor.next()) {
+                        add(cursor, chunkIds);
+                    }
+                } finally {
+                    block.release();
+                }
+                progress.step();
+            }
+        }
+        ids.merge(chunkIds);
+    }
+
+    private void add(EntityCursor cursor, LongBitmap.Builder chunkIds) {
+        if (cursor.type() != osmType) {
+            return;
+        }
+        switch (osmType) {
+            case WAY -> {
+                for (var n = 0; n < cursor.refCount(); n++) {
+                    chunkIds.add(cursor.ref(n));
+                }
+            }
+            case RELATION -> {
+                for (var n = 0; n < cursor.memberCount(); n++) {
+                    if (cursor.memberType(n) == referenced) {
+                        chunkIds.add(cursor.memberId(n));
+                    }
+                }
+            }
+            default -> throw new IllegalStateException("no references in " + osmType);
+        }
+    }
+}
@@ -7,32 +7,31 @@ import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.heigit.ohsome.contributions.avro.Contrib;
-import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
 import org.heigit.ohsome.contributions.spatialjoin.SpatialJoiner;
 import org.heigit.ohsome.contributions.util.Progress;
 import org.heigit.ohsome.osm.OSMType;
 import org.heigit.ohsome.osm.changesets.Changesets;
+import org.heigit.ohsome.osm.pbf.Blob;
 import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
+import org.heigit.ohsome.osm.pbf.BufferPool;
+import org.heigit.ohsome.osm.pbf.KeyFilter;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
 import org.heigit.ohsome.parquet.avro.AvroUtil;
-import org.rocksdb.IngestExternalFileOptions;
-import org.rocksdb.RocksDB;
-import org.rocksdb.RocksDBException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
-import static java.nio.file.StandardOpenOption.READ;
-
 public abstract class Transformer {
+  private static final int CHUNKS_PER_WORKER = 8;
 
   protected final OSMType osmType;
   protected final OSMPbf pbf;
@@ -40,71 +39,158 @@ public abstract class Transformer {
   protected final int parallel;
   protected final SpatialJoiner countryJoiner;
   protected final Changesets changesetDb;
+  protected final BufferPool pool;
+  protected final KeyFilter keyFilter;
+  protected final BlockPrefetcher.Config prefetch;
+  private final Queue<ChunkTiming> chunkTimings = new ConcurrentLinkedQueue<>();
+  // parquet writers of finished chunks, reused by the next chunks, so there is one file per worker and status
+  private final Queue<Parquet> writers = new ConcurrentLinkedQueue<>();
 
   protected Transformer(OSMType type, OSMPbf pbf, Path out, int parallel,
-      SpatialJoiner countryJoiner, Changesets changesetDb) {
+      SpatialJoiner countryJoiner, Changesets changesetDb, KeyFilter keyFilter,
+      BlockPrefetcher.Config prefetch) {
     this.osmType = type;
     this.pbf = pbf;
     this.outputDir = out;
     this.parallel = parallel;
     this.countryJoiner = countryJoiner;
     this.changesetDb = changesetDb;
+    // every chunk holds its current block and up to depth prefetched ones
+    this.pool = new BufferPool("%s buffers".formatted(type), (prefetch.depth() + 4) * parallel);
+    this.keyFilter = keyFilter;
+    this.prefetch = prefetch;
   }
 
   public record Chunk(int start, int limit) {
 
   }
 
-  public static List<Chunk> blocksPerChunk(List<BlobHeader> blobs, int numChunks) {
-    var size = blobs.size();
-    var splits = Math.min(size, numChunks);
-    var chunkLength = size / splits;
-    var rest = size % splits;
-    if (chunkLength == 0) {
-      chunkLength = 1;
-      rest = 0;
-    }
-
+  /**
+   * Splits the blobs into consecutive chunks of roughly equal compressed size.
+   */
+  public static List<Chunk> chunksBySize(List<BlobHeader> blobs, int numChunks) {
+    var total = blobs.stream().mapToLong(BlobHeader::dataSize).sum();
+    var target = Math.max(1, (total + numChunks - 1) / Math.max(1, numChunks));
     var chunks = new ArrayList<Chunk>();
-    var offset = 0;
-    while(offset < size) {
-      var limit = offset + chunkLength + (rest-- > 0 ? 1 : 0);
-      chunks.add(new Chunk(offset, Math.min(size, limit)));
-      offset = limit;
+    var start = 0;
+    var size = 0L;
+    for (var i = 0; i < blobs.size(); i++) {
+      size += blobs.get(i).dataSize();
+      if (size >= target) {
+        chunks.add(new Chunk(start, i + 1));
+        start = i + 1;
+        size = 0;
+      }
+    }
+    if (start < blobs.size()) {
+      chunks.add(new Chunk(start, blobs.size()));
     }
     return chunks;
   }
 
+  /**
+   * @param nanos wall time of processing the chunk, including waiting for its blocks
+   */
+  public record ChunkTiming(int id, Chunk chunk, long bytes, long nanos) {
+
+  }
+
+  public List<ChunkTiming> chunkTimings() {
+    return chunkTimings.stream().sorted(Comparator.comparingInt(ChunkTiming::id)).toList();
+  }
+
   protected void process(Map<OSMType, List<BlobHeader>> blobsByType) throws IOException {
     var blobs = blobsByType.get(osmType);
-    var chunks = blocksPerChunk(blobs, parallel);
+    // histories are not evenly dense over the id space, many small chunks keep all workers busy until the end
+    // every chunk writes its own minor store files, they need disjoint id ranges, but the parquet writers are shared
+    var chunks = chunksBySize(blobs, parallel * CHUNKS_PER_WORKER);
     try (var progress = new ProgressBarBuilder()
         .setTaskName("process %8s".formatted(osmType))
         .setInitialMax(blobs.size())
         .setUnit(" blk", 1)
         .build();
-        var ch = FileChannel.open(pbf.path(), READ)) {
+        var source = pbf.blobSource();
+        var prefetcher = new BlockPrefetcher(source, pool, prefetch)) {
+      // flatMap subscribes to the next chunk whenever a worker finished one, so idle workers take the remaining
+      // chunks in order from the shared range
       Flux.range(0, chunks.size())
           .flatMap(id -> Mono.fromRunnable(
-                  () -> process(id, progress::stepBy, ch, chunks.get(id), blobs))
+                  () -> process(id, progress::stepBy, prefetcher, chunks.get(id), blobs))
               .subscribeOn(Schedulers.boundedElastic()), parallel)
           .blockLast();
+    } finally {
+      closeWriters();
     }
   }
 
-  private void process(int id, Progress progress, FileChannel ch, Chunk chunk,
+  /**
+   * @return the parquet writer of a finished chunk or a new one, at most one for every concurrently processed chunk
+   */
+  protected Parquet acquireWriter() {
+    var writer = writers.poll();
+    return writer != null ? writer : openWriter(outputDir, osmType, builder -> {
+    });
+  }
+
+  /**
+   * Hands the writer to the next chunk, all writers are closed once every chunk is processed.
+   */
+  protected void releaseWriter(Parquet writer) {
+    writers.add(writer);
+  }
+
+  private void closeWriters() throws IOException {
+    IOException error = null;
+    for (var writer = writers.poll(); writer != null; writer = writers.poll()) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        if (error == null) {
+          error = e;
+        } else {
+          error.addSuppressed(e);
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * @return buffer pool, inflater and chunk timing statistics of the processed chunks
+   */
+  public String summary() {
+    return pool.stats() + ", " + Blob.inflaterStats() + "\n" + chunkTimingSummary();
+  }
+
+  private void process(int id, Progress progress, BlockPrefetcher prefetcher, Chunk chunk,
       List<BlobHeader> blobs) {
+    var start = System.nanoTime();
     try {
-      var processor = Transformer.processor(id, ch, chunk, blobs, pbf);
+      var processor = Transformer.processor(id, prefetcher, chunk, blobs, pbf);
       process(processor, progress);
     } catch (Exception e) {
       throw new TransformerException("Error processing chunk " + id, e);
     }
+    var bytes = blobs.subList(chunk.start(), chunk.limit()).stream().mapToLong(BlobHeader::dataSize).sum();
+    chunkTimings.add(new ChunkTiming(id, chunk, bytes, System.nanoTime() - start));
   }
 
-  public static Processor processor(int id, FileChannel ch, Chunk chunk, List<BlobHeader> blobs,
-      OSMPbf pbf) {
-    return new Processor(id, pbf, ch, blobs, chunk.start(), chunk.limit());
+  private String chunkTimingSummary() {
+    var millis = chunkTimings.stream().mapToLong(timing -> timing.nanos() / 1_000_000).sorted().toArray();
+    if (millis.length == 0) {
+      return "%s chunks: 0".formatted(osmType);
+    }
+    var slowest = chunkTimings.stream().max(Comparator.comparingLong(ChunkTiming::nanos)).orElseThrow();
+    return "%s chunks: %d, ms min=%d, median=%d, max=%d (chunk %d, %d blobs, %d MB)".formatted(osmType,
+        millis.length, millis[0], millis[millis.length / 2], millis[millis.length - 1], slowest.id(),
+        slowest.chunk().limit() - slowest.chunk().start(), slowest.bytes() >> 20);
+  }
+
+  public static Processor processor(int id, BlockPrefetcher prefetcher, Chunk chunk,
+      List<BlobHeader> blobs, OSMPbf pbf) {
+    return new Processor(id, pbf, prefetcher, blobs, chunk.start(), chunk.limit());
   }
 
   private static final String GEO_SCHEMA = """
@@ -150,21 +236,6 @@ public abstract class Transformer {
 
   protected abstract void process(Processor processor, Progress progress) throws Exception;
 
-  public static void moveSstToRocksDb(Path rocksDbPath) throws RocksDBException, IOException {
-    try (var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
-        var rocksDb = RocksDB.open(options, rocksDbPath.toString());
-        var ifo = new IngestExternalFileOptions()) {
-      ifo.setMoveFiles(true);
-      ifo.setWriteGlobalSeqno(false);
-      try (var files = Files.list(rocksDbPath.resolve("ingest"))) {
-        rocksDb.ingestExternalFile(files
-            .map(Path::toAbsolutePath)
-            .map(Path::toString).toList(), ifo);
-      }
-    }
-    Files.deleteIfExists(rocksDbPath.resolve("ingest"));
-  }
-
   public static class Parquet implements Closeable {
 
     record WriterPath(ParquetWriter<Contrib> writer, Path path) {
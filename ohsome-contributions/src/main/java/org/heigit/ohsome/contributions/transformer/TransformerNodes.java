@@ -3,19 +3,19 @@ package org.heigit.ohsome.contributions.transformer;
 import org.heigit.ohsome.contributions.contrib.Contribution;
 import org.heigit.ohsome.contributions.contrib.ContributionsAvroConverter;
 import org.heigit.ohsome.contributions.contrib.ContributionsNode;
-import org.heigit.ohsome.contributions.minor.SstWriter;
-import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.heigit.ohsome.contributions.minor.MinorStore;
+import org.heigit.ohsome.contributions.minor.MinorWriter;
+import org.heigit.ohsome.contributions.minor.UserDictionary;
 import org.heigit.ohsome.contributions.spatialjoin.SpatialJoiner;
+import org.heigit.ohsome.contributions.util.OSHCursor;
 import org.heigit.ohsome.contributions.util.Progress;
 import org.heigit.ohsome.osm.OSMEntity.OSMNode;
 import org.heigit.ohsome.osm.OSMType;
 import org.heigit.ohsome.osm.changesets.Changesets;
 import org.heigit.ohsome.osm.pbf.BlobHeader;
-import org.heigit.ohsome.osm.pbf.BlockReader;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
+import org.heigit.ohsome.osm.pbf.KeyFilter;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
-import org.rocksdb.EnvOptions;
-import org.rocksdb.RocksDBException;
-import org.rocksdb.SstFileWriter;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -24,102 +24,81 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
-import static com.google.common.collect.Iterators.peekingIterator;
 import static org.heigit.ohsome.contributions.util.Utils.fetchChangesets;
-import static org.heigit.ohsome.contributions.util.Utils.hasNoTags;
 import static org.heigit.ohsome.osm.OSMType.NODE;
 
 public class TransformerNodes extends Transformer {
-    private final Path sstDirectory;
-
-
-    public TransformerNodes(OSMPbf pbf, Path out, int parallel, Path sstDirectory, SpatialJoiner countryJoiner, Changesets changesetDb) {
-        super(NODE, pbf, out, parallel, countryJoiner, changesetDb);
-        this.sstDirectory = sstDirectory;
+    private final Path minorPath;
+    private final MinorStore.Config minorStore;
+    private final UserDictionary.Builder users;
+    private final LongPredicate writeMinor;
+
+
+    public TransformerNodes(OSMPbf pbf, Path out, int parallel, Path minorPath, MinorStore.Config minorStore, UserDictionary.Builder users, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb, KeyFilter keyFilter, BlockPrefetcher.Config prefetch) {
+        super(NODE, pbf, out, parallel, countryJoiner, changesetDb, keyFilter, prefetch);
+        this.minorPath = minorPath;
+        this.minorStore = minorStore;
+        this.users = users;
+        this.writeMinor = writeMinor;
     }
 
-    public static void processNodes(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, Path out, int parallel, Path rocksDbPath, SpatialJoiner countryJoiner, Changesets changesetDb) throws IOException, RocksDBException {
-        Files.createDirectories(rocksDbPath);
-        var transformer = new TransformerNodes(pbf, out, parallel, rocksDbPath.resolve("ingest"), countryJoiner, changesetDb);
+    /**
+     * @param users      collects the users of the minor node versions, their names are not stored in the minor store
+     * @param writeMinor selects the nodes whose histories are written to the minor store, e.g. the ones referenced by ways or relations
+     * @return the transformer, e.g. for its {@link #summary()}
+     */
+    public static TransformerNodes processNodes(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, Path out, int parallel, Path minorPath, MinorStore.Config minorStore, UserDictionary.Builder users, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb, KeyFilter keyFilter, BlockPrefetcher.Config prefetch) throws IOException {
+        Files.createDirectories(minorPath);
+        var transformer = new TransformerNodes(pbf, out, parallel, minorPath, minorStore, users, writeMinor, countryJoiner, changesetDb, keyFilter, prefetch);
         transformer.process(blobsByType);
-        moveSstToRocksDb(rocksDbPath);
+        minorStore.finish(minorPath);
+        return transformer;
     }
 
 
     @Override
     protected void process(Processor processor, Progress progress) throws Exception {
-        try (var writer = openWriter(outputDir, osmType, builder -> {
-        })) {
+        var writer = acquireWriter();
+        try {
             process(processor, progress, writer);
+        } finally {
+            releaseWriter(writer);
         }
     }
 
     protected void process(Processor processor, Progress progress, Parquet writer) throws Exception {
-        try (var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
-             var env = new EnvOptions();
-             var sstWriter = new SstWriter(
-                     sstDirectory.resolve("nodes-%03d.sst".formatted(processor.id())),
-                     new SstFileWriter(env, options))) {
-            process(processor, progress, writer, sstWriter);
+        try (var minorWriter = minorStore.writer(minorPath, processor.id())) {
+            process(processor, progress, writer, minorWriter);
+            users.merge(minorWriter.users());
         }
-
     }
 
-    private void process(Processor processor, Progress progress, Parquet writer, SstWriter sstWriter) throws Exception {
-        var ch = processor.ch();
-        var blobs = processor.blobs();
-        var offset = processor.offset();
-        var limit = processor.limit();
-        var entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-        var osm = entities.peek();
-        if (processor.isWithHistory() && offset > 0 && osm.version() > 1) {
-            while (entities.hasNext() && entities.peek().id() == osm.id()) {
-                entities.next();
-                if (!entities.hasNext() && ++offset < limit) {
-                    entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                }
+    private void process(Processor processor, Progress progress, Parquet writer, MinorWriter minorWriter) throws Exception {
+        try (var osh = new OSHCursor(processor.blocks(), progress, keyFilter)) {
+            if (processor.isWithHistory()) {
+                osh.skipPartialHistory();
             }
+            process(processor, osh, writer, minorWriter);
         }
+    }
+
+    private void process(Processor processor, OSHCursor osh, Parquet writer, MinorWriter minorWriter) throws Exception {
         var BATCH_SIZE = 10_000;
         var batch = new ArrayList<List<OSMNode>>(BATCH_SIZE);
-        while (offset < limit && entities.hasNext()) {
+        var hasNext = osh.next();
+        while (hasNext) {
             batch.clear();
-            while (offset < limit && entities.hasNext() && batch.size() < BATCH_SIZE) {
-                var osh = new ArrayList<OSMNode>();
-                var id = entities.peek().id();
-                while (entities.hasNext() && entities.peek().id() == id) {
-                    osh.add((OSMNode) entities.next());
-                    if (!entities.hasNext()) {
-                        offset++;
-                        progress.step();
-                        if (offset < limit) {
-                            entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                        }
-                    }
-                }
-                if (!entities.hasNext()) {
-                    while (offset < blobs.size()) {
-                        entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                        while (entities.hasNext() && entities.peek().id() == id) {
-                            osh.add((OSMNode) entities.next());
-                        }
-                        if (entities.hasNext()) {
-                            break;
-                        }
-                        offset++;
-                        progress.step();
-                    }
+            while (hasNext && batch.size() < BATCH_SIZE) {
+                if (writeMinor.test(osh.id())) {
+                    minorWriter.writeMinorNode(osh);
                 }
-
-                sstWriter.writeMinorNode(osh);
-
-                if (hasNoTags(osh)) {
-                    continue;
+                if (osh.hasTags() && osh.matches()) {
+                    batch.add(osh.nodes());
                 }
-
-                batch.add(osh);
+                hasNext = osh.next();
             }
 
             var changesetIds = batch.stream()
@@ -130,8 +109,8 @@ public class TransformerNodes extends Transformer {
 
             var changesets = fetchChangesets(changesetIds, changesetDb);
 
-            for (var osh : batch) {
-                var contributions = new ContributionsNode(osh);
+            for (var versions : batch) {
+                var contributions = new ContributionsNode(versions);
                 var converter = new ContributionsAvroConverter(contributions, changesets::get, countryJoiner);
 
                 while (converter.hasNext()) {
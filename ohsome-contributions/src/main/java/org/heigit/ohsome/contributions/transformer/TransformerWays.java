@@ -3,147 +3,143 @@ package org.heigit.ohsome.contributions.transformer;
 import org.heigit.ohsome.contributions.contrib.Contribution;
 import org.heigit.ohsome.contributions.contrib.ContributionsAvroConverter;
 import org.heigit.ohsome.contributions.contrib.ContributionsWay;
-import org.heigit.ohsome.contributions.minor.MinorNode;
-import org.heigit.ohsome.contributions.minor.SstWriter;
-import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.heigit.ohsome.contributions.minor.MinorCache;
+import org.heigit.ohsome.contributions.minor.MinorStore;
+import org.heigit.ohsome.contributions.minor.MinorWriter;
+import org.heigit.ohsome.contributions.minor.UserDictionary;
 import org.heigit.ohsome.contributions.spatialjoin.SpatialJoiner;
+import org.heigit.ohsome.contributions.util.OSHCursor;
 import org.heigit.ohsome.contributions.util.Progress;
-import org.heigit.ohsome.contributions.util.RocksMap;
 import org.heigit.ohsome.osm.OSMEntity.OSMWay;
 import org.heigit.ohsome.osm.OSMType;
 import org.heigit.ohsome.osm.changesets.Changesets;
 import org.heigit.ohsome.osm.pbf.BlobHeader;
-import org.heigit.ohsome.osm.pbf.BlockReader;
+import org.heigit.ohsome.osm.pbf.BlockPrefetcher;
+import org.heigit.ohsome.osm.pbf.KeyFilter;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
-import org.rocksdb.EnvOptions;
-import org.rocksdb.RocksDB;
-import org.rocksdb.RocksDBException;
-import org.rocksdb.SstFileWriter;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
-import static com.google.common.collect.Iterators.peekingIterator;
 import static org.heigit.ohsome.contributions.util.Utils.fetchChangesets;
-import static org.heigit.ohsome.contributions.util.Utils.hasNoTags;
 import static org.heigit.ohsome.osm.OSMEntity.OSMNode;
 import static org.heigit.ohsome.osm.OSMType.WAY;
 
 public class TransformerWays extends Transformer {
-    public static void processWays(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, Path out, int parallel,
-                                   RocksDB minorNodeStorage, Path rocksDbPath, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb) throws IOException, RocksDBException {
-        Files.createDirectories(rocksDbPath);
-        var transformer = new TransformerWays(pbf, out, parallel, minorNodeStorage, rocksDbPath.resolve("ingest"), writeMinor, countryJoiner, changesetDb);
+    /**
+     * @param minorNodeUsers resolves the user names of the minor node versions
+     * @param minorNodeCache maximum number of minor node versions cached by each worker, 0 disables the cache
+     * @param users          collects the users of the minor way versions, their names are not stored in the minor store
+     * @return the transformer, e.g. for its {@link #summary()}
+     */
+    public static TransformerWays processWays(OSMPbf pbf, Map<OSMType, List<BlobHeader>> blobsByType, Path out, int parallel,
+                                   MinorStore minorNodeStorage, UserDictionary minorNodeUsers, long minorNodeCache, Path minorPath, MinorStore.Config minorStore, UserDictionary.Builder users, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb, KeyFilter keyFilter, BlockPrefetcher.Config prefetch) throws IOException {
+        Files.createDirectories(minorPath);
+        var transformer = new TransformerWays(pbf, out, parallel, minorNodeStorage, minorNodeUsers, minorNodeCache, minorPath, minorStore, users, writeMinor, countryJoiner, changesetDb, keyFilter, prefetch);
         transformer.process(blobsByType);
-        moveSstToRocksDb(rocksDbPath);
+        minorStore.finish(minorPath);
+        return transformer;
     }
 
 
-    private final RocksDB minorNodesStorage;
-    private final Path sstDirectory;
+    private final MinorStore minorNodesStorage;
+    private final UserDictionary minorNodeUsers;
+    private final long minorNodeCache;
+    private final MinorCache.Stats cacheStats = new MinorCache.Stats();
+    private final Path minorPath;
+    private final MinorStore.Config minorStore;
+    private final UserDictionary.Builder users;
     private final LongPredicate writeMinor;
+    private final boolean locationsOnWays;
 
-    public TransformerWays(OSMPbf pbf, Path out, int parallel, RocksDB minorNodesStorage, Path sstDirectory, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb) {
-        super(WAY, pbf, out, parallel, countryJoiner, changesetDb);
+    public TransformerWays(OSMPbf pbf, Path out, int parallel, MinorStore minorNodesStorage, UserDictionary minorNodeUsers, long minorNodeCache, Path minorPath, MinorStore.Config minorStore, UserDictionary.Builder users, LongPredicate writeMinor, SpatialJoiner countryJoiner, Changesets changesetDb, KeyFilter keyFilter, BlockPrefetcher.Config prefetch) {
+        super(WAY, pbf, out, parallel, countryJoiner, changesetDb, keyFilter, prefetch);
         this.minorNodesStorage = minorNodesStorage;
-        this.sstDirectory = sstDirectory;
+        this.minorNodeUsers = minorNodeUsers;
+        this.minorNodeCache = minorNodeCache;
+        this.minorPath = minorPath;
+        this.minorStore = minorStore;
+        this.users = users;
         this.writeMinor = writeMinor;
+        // without history the embedded coordinates are the latest node locations, no minor node lookup needed
+        this.locationsOnWays = pbf.header().locationsOnWays() && !pbf.header().withHistory();
+    }
+
+    @Override
+    public String summary() {
+        return super.summary() + "\nminor node cache: " + cacheStats;
     }
 
     @Override
     protected void process(Processor processor, Progress progress) throws Exception {
-        try (var writer = openWriter(outputDir, osmType, builder -> {
-        })) {
+        var writer = acquireWriter();
+        try {
             process(processor, progress, writer);
+        } finally {
+            releaseWriter(writer);
         }
     }
 
     protected void process(Processor processor, Progress progress, Parquet writer) throws Exception {
-        try (var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
-             var env = new EnvOptions();
-             var sstWriter = new SstWriter(
-                     sstDirectory.resolve("nodes-%03d.sst".formatted(processor.id())),
-                     new SstFileWriter(env, options))) {
-            process(processor, progress, writer, sstWriter);
+        var nodeCache = MinorCache.nodes(minorNodesStorage, minorNodeCache);
+        try (var minorWriter = minorStore.writer(minorPath, processor.id())) {
+            process(processor, progress, writer, minorWriter, nodeCache);
+            users.merge(minorWriter.users());
+        } finally {
+            cacheStats.add(nodeCache);
         }
     }
 
-    private void process(Processor processor, Progress progress, Parquet writer, SstWriter sstWriter) throws Exception {
-        var ch = processor.ch();
-        var blobs = processor.blobs();
-        var offset = processor.offset();
-        var limit = processor.limit();
-        var entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-        var osm = entities.peek();
-        if (processor.isWithHistory() && offset > 0 && osm.version() > 1) {
-            while (entities.hasNext() && entities.peek().id() == osm.id()) {
-                entities.next();
-                if (!entities.hasNext() && offset < limit) {
-                    offset++;
-                    entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                }
+    private void process(Processor processor, Progress progress, Parquet writer, MinorWriter minorWriter, MinorCache<List<OSMNode>> nodeCache) throws Exception {
+        try (var osh = new OSHCursor(processor.blocks(), progress, keyFilter)) {
+            if (processor.isWithHistory()) {
+                osh.skipPartialHistory();
             }
+            process(processor, osh, writer, minorWriter, nodeCache);
         }
+    }
+
+    private void process(Processor processor, OSHCursor osh, Parquet writer, MinorWriter minorWriter, MinorCache<List<OSMNode>> nodeCache) throws Exception {
         var BATCH_SIZE = 10_000;
         var batch = new ArrayList<List<OSMWay>>(BATCH_SIZE);
-        while (offset < limit && entities.hasNext()) {
+        var locations = new HashMap<Long, List<OSMNode>>();
+        var hasNext = osh.next();
+        while (hasNext) {
             batch.clear();
-            while (offset < limit && entities.hasNext() && batch.size() < BATCH_SIZE) {
-                var osh = new ArrayList<OSMWay>();
-                var id = entities.peek().id();
-                while (entities.hasNext() && entities.peek().id() == id) {
-                    osh.add((OSMWay) entities.next());
-                    if (!entities.hasNext()) {
-                        offset++;
-                        progress.step();
-                        if (offset < limit) {
-                            entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                        }
-
-                    }
+            locations.clear();
+            while (hasNext && batch.size() < BATCH_SIZE) {
+                if (writeMinor.test(osh.id())) {
+                    minorWriter.writeMinorWay(osh);
                 }
-                if (!entities.hasNext()) {
-                    while (offset < blobs.size()) {
-                        entities = peekingIterator(BlockReader.readBlock(ch, blobs.get(offset)).entities().iterator());
-                        while (entities.hasNext() && entities.peek().id() == id) {
-                            osh.add((OSMWay) entities.next());
-                        }
-                        if (entities.hasNext()) {
-                            break;
-                        }
-                        offset++;
-                        progress.step();
+                if (osh.hasTags() && osh.matches()) {
+                    batch.add(osh.ways());
+                    if (locationsOnWays && osh.hasLocations()) {
+                        addLocations(osh, locations);
                     }
                 }
-
-                if (writeMinor.test(osh.getFirst().id())) {
-                    sstWriter.writeMinorWay(osh);
-                }
-                if (hasNoTags(osh)) {
-                    continue;
-                }
-                batch.add(osh);
+                hasNext = osh.next();
             }
 
-            var minorNodes = fetchMinors(batch);
+            var minorNodes = fetchMinors(batch, locations, nodeCache);
             var changesetIds = batch.stream()
-                    .map(osh -> new ContributionsWay(osh, minorNodes))
+                    .map(versions -> new ContributionsWay(versions, minorNodes))
                     .<Contribution>mapMulti(Iterator::forEachRemaining)
                     .map(Contribution::changeset)
                     .collect(Collectors.toSet());
 
             var changesets = fetchChangesets(changesetIds, changesetDb);
 
-            for (var osh : batch) {
-                var contributions = new ContributionsWay(osh, minorNodes);
-                var converter = new ContributionsAvroConverter(contributions, changesets::get, countryJoiner);
+            for (var versions : batch) {
+                var contributions = new ContributionsWay(versions, minorNodes);
+                var converter = new ContributionsAvroConverter(contributions, changesets::get, countryJoiner, minorNodeUsers);
 
                 while (converter.hasNext()) {
                     var contrib = converter.next();
@@ -155,12 +151,33 @@ public class TransformerWays extends Transformer {
         }
     }
 
-    private Map<Long, List<OSMNode>> fetchMinors(List<List<OSMWay>> batch) {
+    /**
+     * Uses the coordinates embedded in the ways (LocationsOnWays) as single version node histories.
+     */
+    private static void addLocations(OSHCursor osh, Map<Long, List<OSMNode>> locations) {
+        var refs = osh.refs();
+        for (var i = 0; i < osh.size(); i++) {
+            for (var r = osh.refOffset(i); r < osh.refOffset(i) + osh.refCount(i); r++) {
+                var lon = osh.refLon(r);
+                var lat = osh.refLat(r);
+                locations.computeIfAbsent(refs[r], ref -> List.of(
+                        new OSMNode(ref, 1, 0, 0, 0, "", true, Map.of(), lon, lat)));
+            }
+        }
+    }
+
+    private static Map<Long, List<OSMNode>> fetchMinors(List<List<OSMWay>> batch, Map<Long, List<OSMNode>> locations, MinorCache<List<OSMNode>> nodeCache) {
         var refs = batch.stream()
                 .<OSMWay>mapMulti(Iterable::forEach)
                 .<Long>mapMulti((way, down) -> way.refs().forEach(down))
+                .filter(ref -> !locations.containsKey(ref))
                 .collect(Collectors.toSet());
-        return RocksMap.get(minorNodesStorage, refs, MinorNode::deserialize);
+        if (refs.isEmpty()) {
+            return locations;
+        }
+        var minorNodes = nodeCache.get(refs);
+        minorNodes.putAll(locations);
+        return minorNodes;
     }
 
 }
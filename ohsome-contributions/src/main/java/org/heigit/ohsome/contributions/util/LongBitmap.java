@@ -0,0 +1,217 @@
+package org.heigit.ohsome.contributions.util;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Compressed set of ids, in the spirit of Roaring bitmaps.
+ * <p>
+ * Ids are split into containers of 2^16 consecutive ids by their high bits. A container with few ids is a
+ * sorted {@code char[]} of the low bits, a container with more than {@value #ARRAY_LIMIT} ids is a bitset of
+ * 1024 longs, so no container takes more than 8KB. Containers are indexed directly by their high bits, a
+ * lookup is a single array access followed by a bit test or a binary search. Negative ids, e.g. the placeholders
+ * of editor extracts, are rare and kept in a sorted {@code long[]} of their own.
+ * <p>
+ * Immutable and thread safe, built by a {@link Builder}.
+ */
+public class LongBitmap implements LongPredicate {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITSET_LONGS = (1 << 16) / Long.SIZE;
+
+    private final char[][] arrays;
+    private final long[][] bitsets;
+    private final long[] negatives;
+    private final long cardinality;
+
+    private LongBitmap(char[][] arrays, long[][] bitsets, long[] negatives, long cardinality) {
+        this.arrays = arrays;
+        this.bitsets = bitsets;
+        this.negatives = negatives;
+        this.cardinality = cardinality;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean test(long id) {
+        return contains(id);
+    }
+
+    public boolean contains(long id) {
+        if (id < 0) {
+            return Arrays.binarySearch(negatives, id) >= 0;
+        }
+        var key = id >>> 16;
+        if (key >= arrays.length) {
+            return false;
+        }
+        var low = (char) id;
+        var bitset = bitsets[(int) key];
+        if (bitset != null) {
+            return (bitset[low >>> 6] & (1L << low)) != 0;
+        }
+        var array = arrays[(int) key];
+        return array != null && Arrays.binarySearch(array, low) >= 0;
+    }
+
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return approximate heap size of the containers
+     */
+    public long sizeInBytes() {
+        var size = 16L * arrays.length + 8L * negatives.length;
+        for (var i = 0; i < arrays.length; i++) {
+            if (bitsets[i] != null) {
+                size += 8L * bitsets[i].length;
+            } else if (arrays[i] != null) {
+                size += 2L * arrays[i].length;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "LongBitmap{cardinality=%d, size=%d MB}".formatted(cardinality, sizeInBytes() >> 20);
+    }
+
+    /**
+     * Collects ids in any order and with duplicates. Not thread safe, builders of several workers are
+     * combined with {@link #merge(Builder)}.
+     */
+    public static class Builder {
+        private char[][] arrays = new char[0][];
+        private int[] sizes = new int[0];
+        private long[][] bitsets = new long[0][];
+        private long[] negatives = new long[0];
+        private int negativeCount;
+
+        public void add(long id) {
+            if (id < 0) {
+                if (negativeCount == negatives.length) {
+                    negatives = Arrays.copyOf(negatives, Math.max(16, negativeCount * 2));
+                }
+                negatives[negativeCount++] = id;
+                return;
+            }
+            var key = (int) (id >>> 16);
+            ensureKey(key);
+            var low = (char) id;
+            var bitset = bitsets[key];
+            if (bitset != null) {
+                bitset[low >>> 6] |= 1L << low;
+                return;
+            }
+            var array = arrays[key];
+            var size = sizes[key];
+            if (array == null) {
+                array = arrays[key] = new char[16];
+            } else if (size == array.length) {
+                if (size < ARRAY_LIMIT) {
+                    array = arrays[key] = Arrays.copyOf(array, size * 2);
+                } else if ((size = compact(key)) > ARRAY_LIMIT / 2) {
+                    // half full of distinct ids, a bitset is as small and avoids further compactions
+                    toBitset(key);
+                    bitsets[key][low >>> 6] |= 1L << low;
+                    return;
+                }
+            }
+            array[size] = low;
+            sizes[key] = size + 1;
+        }
+
+        private void ensureKey(int key) {
+            if (key >= arrays.length) {
+                var capacity = Math.max(key + 1, arrays.length + (arrays.length >> 1));
+                arrays = Arrays.copyOf(arrays, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                bitsets = Arrays.copyOf(bitsets, capacity);
+            }
+        }
+
+        /**
+         * Sorts and removes duplicates of an array container.
+         *
+         * @return its new size
+         */
+        private int compact(int key) {
+            var array = arrays[key];
+            var size = sizes[key];
+            Arrays.sort(array, 0, size);
+            var unique = 0;
+            for (var i = 0; i < size; i++) {
+                if (unique == 0 || array[unique - 1] != array[i]) {
+                    array[unique++] = array[i];
+                }
+            }
+            sizes[key] = unique;
+            return unique;
+        }
+
+        private void toBitset(int key) {
+            var bitset = new long[BITSET_LONGS];
+            var array = arrays[key];
+            for (var i = 0; i < sizes[key]; i++) {
+                bitset[array[i] >>> 6] |= 1L << array[i];
+            }
+            bitsets[key] = bitset;
+            arrays[key] = null;
+            sizes[key] = 0;
+        }
+
+        /**
+         * Adds all ids of the other builder.
+         */
+        public synchronized void merge(Builder other) {
+            synchronized (other) {
+                for (var i = 0; i < other.negativeCount; i++) {
+                    add(other.negatives[i]);
+                }
+                ensureKey(other.arrays.length - 1);
+                for (var key = 0; key < other.arrays.length; key++) {
+                    var otherBitset = other.bitsets[key];
+                    if (otherBitset != null) {
+                        if (bitsets[key] == null) {
+                            toBitset(key);
+                        }
+                        var bitset = bitsets[key];
+                        for (var i = 0; i < BITSET_LONGS; i++) {
+                            bitset[i] |= otherBitset[i];
+                        }
+                    } else if (other.arrays[key] != null) {
+                        var high = (long) key << 16;
+                        for (var i = 0; i < other.sizes[key]; i++) {
+                            add(high | other.arrays[key][i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        public synchronized LongBitmap build() {
+            var builtArrays = new char[arrays.length][];
+            var builtBitsets = new long[arrays.length][];
+            var cardinality = 0L;
+            for (var key = 0; key < arrays.length; key++) {
+                if (bitsets[key] != null) {
+                    builtBitsets[key] = bitsets[key].clone();
+                    for (var bits : bitsets[key]) {
+                        cardinality += Long.bitCount(bits);
+                    }
+                } else if (arrays[key] != null) {
+                    var size = compact(key);
+                    builtArrays[key] = Arrays.copyOf(arrays[key], size);
+                    cardinality += size;
+                }
+            }
+            var builtNegatives = Arrays.stream(negatives, 0, negativeCount).sorted().distinct().toArray();
+            cardinality += builtNegatives.length;
+            return new LongBitmap(builtArrays, builtBitsets, builtNegatives, cardinality);
+        }
+    }
+}
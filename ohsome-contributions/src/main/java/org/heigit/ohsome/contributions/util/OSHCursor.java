@@ -0,0 +1,312 @@
+package org.heigit.ohsome.contributions.util;
+
+import org.heigit.ohsome.osm.LongList;
+import org.heigit.ohsome.osm.OSMEntity.OSMNode;
+import org.heigit.ohsome.osm.OSMEntity.OSMWay;
+import org.heigit.ohsome.osm.pbf.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Iterates the entity histories (all versions of one id) starting in the blobs {@code [offset, limit)}.
+ * A history which continues beyond {@code limit} is read to its end.
+ * <p>
+ * The versions of the current history are buffered in reusable primitive columns, only tags are materialized
+ * and only for tagged versions. {@link #nodes()} and {@link #ways()} create entities on demand, so untagged
+ * histories can be handled without allocating any {@link org.heigit.ohsome.osm.OSMEntity}.
+ */
+public class OSHCursor implements AutoCloseable {
+    private final BlockPrefetcher.Blocks blocks;
+    private final int offset;
+    private final int limit;
+    private final Progress progress;
+    private final KeyFilter keyFilter;
+    private KeyFilter.Matcher matcher;
+
+    private int blob;
+    private Block block;
+    private EntityCursor entities;
+    private boolean hasEntity;
+
+    private long id;
+    private int size;
+    private boolean hasTags;
+    private boolean matches;
+    private int[] versions = new int[16];
+    private long[] timestamps = new long[16];
+    private long[] changesets = new long[16];
+    private int[] userIds = new int[16];
+    private String[] users = new String[16];
+    private boolean[] visibles = new boolean[16];
+    private double[] lons = new double[16];
+    private double[] lats = new double[16];
+    @SuppressWarnings("unchecked")
+    private Map<String, String>[] tags = new Map[16];
+    // refs of the i-th version are refs[refOffsets[i]] to refs[refOffsets[i + 1]]
+    private int[] refOffsets = new int[17];
+    private long[] refs = new long[256];
+    private double[] refLons = new double[256];
+    private double[] refLats = new double[256];
+    private boolean hasLocations;
+
+    public OSHCursor(BlockPrefetcher.Blocks blocks, Progress progress) throws IOException {
+        this(blocks, progress, KeyFilter.none());
+    }
+
+    /**
+     * @param blocks    the blocks of the chunk, histories are only started in {@code [blocks.from(), blocks.to())}
+     * @param keyFilter {@link #matches()} is only true for histories with at least one matching tag
+     */
+    public OSHCursor(BlockPrefetcher.Blocks blocks, Progress progress, KeyFilter keyFilter) throws IOException {
+        this.blocks = blocks;
+        this.offset = blocks.from();
+        this.limit = blocks.to();
+        this.progress = progress;
+        this.keyFilter = keyFilter;
+        this.blob = offset;
+        this.hasEntity = advance();
+    }
+
+    /**
+     * Skips the history at the beginning of the chunk if it does not start with its first version,
+     * because it belongs to the previous chunk.
+     */
+    public void skipPartialHistory() throws IOException {
+        if (offset > 0 && hasEntity && entities.version() > 1) {
+            var first = entities.id();
+            while (hasEntity && entities.id() == first) {
+                hasEntity = advance();
+            }
+        }
+    }
+
+    /**
+     * Buffers all versions of the next history which starts in this chunk.
+     *
+     * @return false if there are no more histories starting in this chunk
+     */
+    public boolean next() throws IOException {
+        if (!hasEntity || blob >= limit) {
+            return false;
+        }
+        Arrays.fill(users, 0, size, null);
+        Arrays.fill(tags, 0, size, null);
+        id = entities.id();
+        size = 0;
+        hasTags = false;
+        matches = false;
+        hasLocations = true;
+        do {
+            add();
+            hasEntity = advance();
+        } while (hasEntity && entities.id() == id);
+        return true;
+    }
+
+    private boolean advance() throws IOException {
+        while (entities == null || !entities.next()) {
+            if (block != null) {
+                block.release();
+                block = null;
+                blob++;
+                progress.step();
+            }
+            if (!blocks.hasNext()) {
+                entities = null;
+                return false;
+            }
+            block = blocks.next();
+            entities = block.cursor();
+            matcher = keyFilter.matcher(block);
+        }
+        return true;
+    }
+
+    private void add() {
+        if (size == versions.length) {
+            grow();
+        }
+        versions[size] = entities.version();
+        timestamps[size] = entities.timestamp();
+        changesets[size] = entities.changeset();
+        userIds[size] = entities.userId();
+        users[size] = entities.user();
+        visibles[size] = entities.visible();
+        if (entities.tagCount() > 0) {
+            tags[size] = entities.tags();
+            hasTags = true;
+            matches = matches || matcher.mayMatch() && matcher.matches(entities);
+        } else {
+            tags[size] = Map.of();
+        }
+        var refOffset = refOffsets[size];
+        switch (entities.type()) {
+            case NODE -> {
+                lons[size] = entities.lon();
+                lats[size] = entities.lat();
+            }
+            case WAY -> {
+                var refCount = entities.refCount();
+                if (refOffset + refCount > refs.length) {
+                    var capacity = Math.max(refs.length * 2, refOffset + refCount);
+                    refs = Arrays.copyOf(refs, capacity);
+                    refLons = Arrays.copyOf(refLons, capacity);
+                    refLats = Arrays.copyOf(refLats, capacity);
+                }
+                for (var n = 0; n < refCount; n++) {
+                    refs[refOffset + n] = entities.ref(n);
+                }
+                if (refCount > 0 && entities.hasLocations()) {
+                    for (var n = 0; n < refCount; n++) {
+                        refLons[refOffset + n] = entities.refLon(n);
+                        refLats[refOffset + n] = entities.refLat(n);
+                    }
+                } else if (refCount > 0) {
+                    hasLocations = false;
+                }
+                refOffset += refCount;
+            }
+            case RELATION -> throw new UnsupportedOperationException("relation histories are not supported");
+        }
+        refOffsets[++size] = refOffset;
+    }
+
+    private void grow() {
+        var capacity = size * 2;
+        versions = Arrays.copyOf(versions, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        changesets = Arrays.copyOf(changesets, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        users = Arrays.copyOf(users, capacity);
+        visibles = Arrays.copyOf(visibles, capacity);
+        lons = Arrays.copyOf(lons, capacity);
+        lats = Arrays.copyOf(lats, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        refOffsets = Arrays.copyOf(refOffsets, capacity + 1);
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if at least one version has tags
+     */
+    public boolean hasTags() {
+        return hasTags;
+    }
+
+    /**
+     * @return true if at least one version matches the key filter
+     */
+    public boolean matches() {
+        return matches;
+    }
+
+    public int version(int i) {
+        return versions[i];
+    }
+
+    /**
+     * @return timestamp in epoch milliseconds
+     */
+    public long timestamp(int i) {
+        return timestamps[i];
+    }
+
+    public long changeset(int i) {
+        return changesets[i];
+    }
+
+    public int userId(int i) {
+        return userIds[i];
+    }
+
+    public String user(int i) {
+        return users[i];
+    }
+
+    public boolean visible(int i) {
+        return visibles[i];
+    }
+
+    public double lon(int i) {
+        return lons[i];
+    }
+
+    public double lat(int i) {
+        return lats[i];
+    }
+
+    public int refCount(int i) {
+        return refOffsets[i + 1] - refOffsets[i];
+    }
+
+    /**
+     * @return the backing ref array, refs of the i-th version start at {@link #refOffset(int)}
+     */
+    public long[] refs() {
+        return refs;
+    }
+
+    public int refOffset(int i) {
+        return refOffsets[i];
+    }
+
+    /**
+     * @return true if all ways of this history carry the coordinates of their nodes
+     */
+    public boolean hasLocations() {
+        return hasLocations;
+    }
+
+    /**
+     * @return longitude of the r-th entry of {@link #refs()}, only valid if {@link #hasLocations()}
+     */
+    public double refLon(int r) {
+        return refLons[r];
+    }
+
+    /**
+     * @return latitude of the r-th entry of {@link #refs()}, only valid if {@link #hasLocations()}
+     */
+    public double refLat(int r) {
+        return refLats[r];
+    }
+
+    public List<OSMNode> nodes() {
+        var osh = new ArrayList<OSMNode>(size);
+        for (var i = 0; i < size; i++) {
+            osh.add(new OSMNode(id, versions[i], timestamps[i] / 1000, changesets[i], userIds[i], users[i],
+                    visibles[i], tags[i], lons[i], lats[i]));
+        }
+        return osh;
+    }
+
+    public List<OSMWay> ways() {
+        var osh = new ArrayList<OSMWay>(size);
+        for (var i = 0; i < size; i++) {
+            var wayRefs = LongList.wrap(Arrays.copyOfRange(refs, refOffsets[i], refOffsets[i + 1]), 0, refCount(i));
+            osh.add(new OSMWay(id, versions[i], timestamps[i] / 1000, changesets[i], userIds[i], users[i],
+                    visibles[i], tags[i], wayRefs, null, null));
+        }
+        return osh;
+    }
+
+    @Override
+    public void close() {
+        if (block != null) {
+            block.release();
+            block = null;
+        }
+        blocks.close();
+    }
+}
@@ -1,41 +1,126 @@
 package org.heigit.ohsome.contributions.util;
 
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.BiFunction;
 
+/**
+ * Reusable lookup of values by their big endian long key.
+ * <p>
+ * Ids are sorted and fetched with {@link RocksDB#multiGetByteBuffers(List, List)} in sub-batches of at most
+ * {@code batchSize} keys. Keys and values live in direct buffers which are allocated once, so a lookup neither
+ * allocates a key nor a value array per id. Values larger than {@code valueSize} fall back to a single get.
+ * <p>
+ * An instance is not thread safe, every worker has to use its own.
+ */
 public class RocksMap {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    public static final int DEFAULT_VALUE_SIZE = 4 << 10;
 
-    private RocksMap() {
-        // utility class
+    private final RocksDB db;
+    private final int batchSize;
+    private final List<ByteBuffer> keys;
+    private final List<ByteBuffer> values;
+    private long[] sorted = new long[DEFAULT_BATCH_SIZE];
+
+    public RocksMap(RocksDB db) {
+        this(db, DEFAULT_BATCH_SIZE, DEFAULT_VALUE_SIZE);
+    }
+
+    public RocksMap(RocksDB db, int batchSize, int valueSize) {
+        this.db = db;
+        this.batchSize = batchSize;
+        this.keys = slices(batchSize, Long.BYTES);
+        this.values = slices(batchSize, valueSize);
+    }
+
+    private static List<ByteBuffer> slices(int count, int size) {
+        var buffer = ByteBuffer.allocateDirect(count * size);
+        var slices = new ArrayList<ByteBuffer>(count);
+        for (var i = 0; i < count; i++) {
+            slices.add(buffer.slice(i * size, size).order(ByteOrder.BIG_ENDIAN));
+        }
+        return slices;
+    }
+
+    @FunctionalInterface
+    public interface ValueConsumer {
+
+        /**
+         * @param value only valid during the call
+         */
+        void accept(long key, ByteBuffer value);
+    }
+
+    /**
+     * @param deserializer decodes a value, the buffer is only valid during the call
+     * @return the deserialized values of all ids with a value
+     */
+    public <T> Map<Long, T> get(Collection<Long> ids, BiFunction<Long, ByteBuffer, T> deserializer) {
+        var map = HashMap.<Long, T>newHashMap(ids.size());
+        forEach(ids, (id, value) -> map.put(id, deserializer.apply(id, value)));
+        return map;
     }
 
-    public static  <T> Map<Long, T> get(RocksDB db, Set<Long> ids, BiFunction<Long, byte[], T> deserializer) {
-        var keys = ids.stream()
-                .map(id -> ByteBuffer.allocate(Long.BYTES).order(ByteOrder.BIG_ENDIAN).putLong(id).array())
-                .toList();
+    /**
+     * Calls the consumer in ascending key order for every id with a value.
+     */
+    public void forEach(Collection<Long> ids, ValueConsumer consumer) {
+        var size = sort(ids);
         try {
-            var map = new HashMap<Long, T>();
-
-            var values = db.multiGetAsList(keys);
-            for (var i = 0; i < values.size(); i++) {
-                var id = ByteBuffer.wrap(keys.get(i)).order(ByteOrder.BIG_ENDIAN).getLong();
-                var val = values.get(i);
-                if (val == null) {
-                    continue;
-                }
-                map.put(id, deserializer.apply(id, val));
+            for (var offset = 0; offset < size; offset += batchSize) {
+                get(offset, Math.min(batchSize, size - offset), consumer);
             }
-            return map;
         } catch (RocksDBException e) {
             throw new RuntimeException(e);
         }
+    }
+
+    private int sort(Collection<Long> ids) {
+        if (sorted.length < ids.size()) {
+            sorted = new long[ids.size()];
+        }
+        var size = 0;
+        for (var id : ids) {
+            sorted[size++] = id;
+        }
+        Arrays.sort(sorted, 0, size);
+        return size;
+    }
 
+    private void get(int offset, int count, ValueConsumer consumer) throws RocksDBException {
+        for (var i = 0; i < count; i++) {
+            keys.get(i).clear().putLong(0, sorted[offset + i]);
+            values.get(i).clear();
+        }
+        var results = db.multiGetByteBuffers(keys.subList(0, count), values.subList(0, count));
+        for (var i = 0; i < count; i++) {
+            var id = sorted[offset + i];
+            var result = results.get(i);
+            switch (result.status.getCode()) {
+                case Ok -> {
+                    if (result.requiredSize <= result.value.capacity()) {
+                        consumer.accept(id, result.value);
+                    } else {
+                        var value = db.get(RocksUtil.longToByteArray(id));
+                        consumer.accept(id, ByteBuffer.wrap(value));
+                    }
+                }
+                case NotFound -> {
+                    // no history
+                }
+                default -> throw new RocksDBException(result.status);
+            }
+        }
     }
 }
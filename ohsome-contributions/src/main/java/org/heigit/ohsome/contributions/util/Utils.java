@@ -5,9 +5,10 @@ import me.tongfei.progressbar.ProgressBarBuilder;
 import org.heigit.ohsome.contributions.avro.ContribChangeset;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.changesets.Changesets;
-import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlobIndex;
 import org.heigit.ohsome.osm.pbf.OSMPbf;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Predicate;
@@ -31,20 +32,25 @@ public class Utils {
                 .noneMatch(tag -> keyFilter.getOrDefault(tag.getKey(), alwaysFalse()).test(tag.getValue()));
     }
 
-    public static List<BlobHeader> getBlobHeaders(OSMPbf pbf) {
-        var blobHeaders = new ArrayList<BlobHeader>();
+    public static BlobIndex blobIndex(OSMPbf pbf) throws IOException {
+        var index = BlobIndex.load(pbf.path());
+        if (index.isPresent()) {
+            return index.get();
+        }
         try (var progress = new ProgressBarBuilder()
-                .setTaskName("read blocks")
+                .setTaskName("index blocks")
                 .setInitialMax(pbf.size())
                 .setUnit(" MiB", 1L << 20)
                 .build()) {
-            pbf.blobs().forEach(blobHeader -> {
-                progress.stepTo(blobHeader.offset() + blobHeader.dataSize());
-                blobHeaders.add(blobHeader);
-            });
-            progress.setExtraMessage(blobHeaders.size() + " blocks");
+            var built = BlobIndex.build(pbf, progress::stepBy);
+            progress.setExtraMessage(built.size() + " blocks");
+            try {
+                built.write(BlobIndex.sidecar(pbf.path()));
+            } catch (IOException e) {
+                System.err.println("could not write blob index " + BlobIndex.sidecar(pbf.path()) + ": " + e.getMessage());
+            }
+            return built;
         }
-        return blobHeaders;
     }
 
     public static Map<Long, ContribChangeset> fetchChangesets(Set<Long> ids, Changesets changesetDb) throws Exception {
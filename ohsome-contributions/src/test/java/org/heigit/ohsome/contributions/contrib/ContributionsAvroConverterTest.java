@@ -9,7 +9,6 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
-import static java.time.Instant.ofEpochSecond;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,8 +19,8 @@ class ContributionsAvroConverterTest {
     @Test
     void node() {
         var contributions = new ContributionsNode(List.of(
-                new OSMEntity.OSMNode(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 0.0),
-                new OSMEntity.OSMNode(1, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 0.0, 0.0)
+                new OSMEntity.OSMNode(1, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 0.0),
+                new OSMEntity.OSMNode(1, 2, 2, 2, 2, "", true, emptyMap(), 0.0, 0.0)
         ));
 
         var converter = new ContributionsAvroConverter(contributions, cs -> changesetBuilder.setId(cs).build(), SpatialJoiner.noop());
@@ -40,14 +39,14 @@ class ContributionsAvroConverterTest {
     void way() {
         var members = Map.of(
                 1L, List.of(
-                    new OSMEntity.OSMNode(1, 1, ofEpochSecond(1), 1, 1,"", true, emptyMap(),0.0, 0.0)
+                    new OSMEntity.OSMNode(1, 1, 1, 1, 1,"", true, emptyMap(),0.0, 0.0)
                 ),
                 2L, List.of(
-                        new OSMEntity.OSMNode(2, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0)
+                        new OSMEntity.OSMNode(2, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0)
                 )
         );
         var contributions = new ContributionsWay(List.of(
-               new OSMEntity.OSMWay(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+               new OSMEntity.OSMWay(1, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
         ), osmId -> new ContributionsNode(members.get(osmId.id())));
 
 
@@ -8,30 +8,28 @@ import org.heigit.ohsome.osm.OSMType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
-import static java.time.Instant.ofEpochSecond;
 import static java.util.Collections.emptyMap;
 import static org.heigit.ohsome.osm.OSMEntity.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class ContributionsRelationTest {
   private static final List<OSMNode> contributionsListNodeA = List.of(
-          new OSMNode(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 0.0),
-          new OSMNode(1, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.0, 0.0)
+          new OSMNode(1, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 0.0),
+          new OSMNode(1, 2, 2, 2, 2, "", true, emptyMap(), 1.0, 0.0)
           );
   private Contributions contributionsNodeA;
 
   private static final List<OSMNode> contributionsListNodeB = List.of(
-          new OSMNode(2, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 0.5),
-          new OSMNode(2, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 0.0, 1.0)
+          new OSMNode(2, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 0.5),
+          new OSMNode(2, 2, 2, 2, 2, "", true, emptyMap(), 0.0, 1.0)
   );
   private Contributions contributionsNodeB;
 
   private static final List<OSMNode> contributionsListNodeC = List.of(
-          new OSMNode(3, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 2.0)
+          new OSMNode(3, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 2.0)
   );
   private Contributions contributionsNodeC;
 
@@ -41,15 +39,15 @@ class ContributionsRelationTest {
           3L, contributionsListNodeC
   );
 
-  private static final List<OSMWay> contributionsListWayAB = List.of(new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L)));
+  private static final List<OSMWay> contributionsListWayAB = List.of(new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L)));
   private Contributions contributionsWayAB;
 
-  private static final List<OSMWay> contributionsListWayBC = List.of(new OSMWay(23, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(2L, 3L)));
+  private static final List<OSMWay> contributionsListWayBC = List.of(new OSMWay(23, 1, 1, 1, 1, "", true, emptyMap(), List.of(2L, 3L)));
   private Contributions contributionsWayBC;
 
   private static final List<OSMWay> contributionsListWayCA = List.of(
-          new OSMWay(31, 1, ofEpochSecond(2), 2, 2, "", true, emptyMap(), List.of(3L, 1L)),
-          new OSMWay(31, 2, ofEpochSecond(3), 3, 3, "", true, emptyMap(), List.of(3L, 1L)));
+          new OSMWay(31, 1, 2, 2, 2, "", true, emptyMap(), List.of(3L, 1L)),
+          new OSMWay(31, 2, 3, 3, 3, "", true, emptyMap(), List.of(3L, 1L)));
   private Contributions contributionsWayCA;
 
 
@@ -69,7 +67,7 @@ class ContributionsRelationTest {
     List<OSMMember> membersList = List.of(new OSMMember(OSMType.NODE, 1L, "busstop"));
 
     var osh = List.of(
-            new OSMRelation(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), membersList)
+            new OSMRelation(1, 1, 1, 1, 1, "", true, emptyMap(), membersList)
     );
 
     var contributions = new ContributionsRelation(osh, members);
@@ -81,13 +79,13 @@ class ContributionsRelationTest {
     assertEquals(1, contrib.members().size());
     assertEquals(1, contrib.entity().version());// minor version 0
     assertEquals(1, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());// minor version 1
     assertEquals(2, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -102,7 +100,7 @@ class ContributionsRelationTest {
     List<OSMMember> membersList = members.keySet().stream().map(m -> new OSMMember(m.type(), m.id(), "busstop")).toList();
 
     var osh = List.of(
-            new OSMRelation(23, 1, ofEpochSecond(2), 2, 2, "", true, emptyMap(), membersList)
+            new OSMRelation(23, 1, 2, 2, 2, "", true, emptyMap(), membersList)
     );
 
     var contributions = new ContributionsRelation(osh, members);
@@ -114,7 +112,7 @@ class ContributionsRelationTest {
     assertEquals(2, contrib.members().size());
     assertEquals(1, contrib.entity().version());
     assertEquals(2, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -129,7 +127,7 @@ class ContributionsRelationTest {
     List<OSMMember> membersList = members.keySet().stream().map(m -> new OSMMember(m.type(), m.id(), "busline")).toList();
 
     var osh = List.of(
-            new OSMRelation(123, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), membersList)
+            new OSMRelation(123, 1, 1, 1, 1, "", true, emptyMap(), membersList)
     );
 
     var contributions = new ContributionsRelation(osh, members);
@@ -141,13 +139,13 @@ class ContributionsRelationTest {
     assertEquals(2, contrib.members().size());
     assertEquals(1, contrib.entity().version());// minor version 0
     assertEquals(1, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());// minor version 1
     assertEquals(2, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -163,7 +161,7 @@ class ContributionsRelationTest {
     List<OSMMember> membersList = members.keySet().stream().map(m -> new OSMMember(m.type(), m.id(), "busline")).toList();
 
     var osh = List.of(
-            new OSMRelation(123, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), membersList)
+            new OSMRelation(123, 1, 1, 1, 1, "", true, emptyMap(), membersList)
     );
 
     var contributions = new ContributionsRelation(osh, members);
@@ -175,19 +173,19 @@ class ContributionsRelationTest {
     assertEquals(3, contrib.members().size());
     assertEquals(1, contrib.entity().version());// minor version 0
     assertEquals(1, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());// minor version 1 due to changes to nodes
     assertEquals(2, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());// minor version 2 due to changes to ways
     assertEquals(3, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -203,8 +201,8 @@ class ContributionsRelationTest {
     List<OSMMember> membersList = members.keySet().stream().map(m -> new OSMMember(m.type(), m.id(), "busline")).toList();
 
     var osh = List.of(
-            new OSMRelation(123, 1, ofEpochSecond(2), 2, 1, "", true, emptyMap(), membersList),
-            new OSMRelation(123, 2, ofEpochSecond(3), 3, 2, "", true, emptyMap(), membersList.subList(0,2))
+            new OSMRelation(123, 1, 2, 2, 1, "", true, emptyMap(), membersList),
+            new OSMRelation(123, 2, 3, 3, 2, "", true, emptyMap(), membersList.subList(0,2))
     );
 
     var contributions = new ContributionsRelation(osh, members);
@@ -216,14 +214,14 @@ class ContributionsRelationTest {
     assertEquals(3, contrib.members().size());
     assertEquals(1, contrib.entity().version());
     assertEquals(2, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(2, contrib.members().size());
     assertEquals(2, contrib.entity().version());
     assertEquals(3, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -5,11 +5,9 @@ import org.heigit.ohsome.osm.OSMEntity.OSMWay;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
-import static java.time.Instant.ofEpochSecond;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,16 +18,16 @@ class ContributionsWayTest {
   void testWays() {// why do we have more contributions than one if the position of nodes doesn't change??
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 0.0),
-                    new OSMNode(1, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 0.0, 0.0)
+                    new OSMNode(1, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 0.0),
+                    new OSMNode(1, 2, 2, 2, 2, "", true, emptyMap(), 0.0, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 0.0, 0.0),
-                    new OSMNode(2, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 0.0, 0.0)
+                    new OSMNode(2, 1, 1, 1, 1, "", true, emptyMap(), 0.0, 0.0),
+                    new OSMNode(2, 2, 2, 2, 2, "", true, emptyMap(), 0.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(10, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -40,7 +38,7 @@ class ContributionsWayTest {
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());
     assertEquals(1, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
     assertEquals(2, contrib.members().size());
 
 
@@ -51,12 +49,12 @@ class ContributionsWayTest {
   void testNodeVersionsBeforeWay() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(0), 1, 1, "", true, emptyMap(), 0.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(1), 2, 1, "", true, emptyMap(), 0.0, 0.0)
+                    new OSMNode(1L, 1, 0, 1, 1, "", true, emptyMap(), 0.0, 0.0),
+                    new OSMNode(1L, 2, 1, 2, 1, "", true, emptyMap(), 0.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(2), 1, 1, "", true, emptyMap(), List.of(1L))
+            new OSMWay(10, 1, 2, 1, 1, "", true, emptyMap(), List.of(1L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -74,12 +72,12 @@ class ContributionsWayTest {
   void testWayExistsBeforeNode() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(2), 1, 1, "", true, emptyMap(), 1.0, 0.0)
+                    new OSMNode(1L, 1, 2, 1, 1, "", true, emptyMap(), 1.0, 0.0)
             )
     );
 
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L))
+            new OSMWay(10, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -98,15 +96,15 @@ class ContributionsWayTest {
   void testNodeVersionsBeforePlusMinorVersionWay() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(0), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(1), 2, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(1L, 3, ofEpochSecond(5), 5, 1, "", true, emptyMap(), 3.0, 0.0),
-                    new OSMNode(1L, 4, ofEpochSecond(6), 6, 1, "", true, emptyMap(), 4.0, 0.0)
+                    new OSMNode(1L, 1, 0, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 1, 2, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(1L, 3, 5, 5, 1, "", true, emptyMap(), 3.0, 0.0),
+                    new OSMNode(1L, 4, 6, 6, 1, "", true, emptyMap(), 4.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(2), 1, 1, "", true, emptyMap(), List.of(1L)),
-            new OSMWay(10, 2, ofEpochSecond(7), 1, 1, "", true, emptyMap(), List.of(1L))
+            new OSMWay(10, 1, 2, 1, 1, "", true, emptyMap(), List.of(1L)),
+            new OSMWay(10, 2, 7, 1, 1, "", true, emptyMap(), List.of(1L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -143,17 +141,17 @@ class ContributionsWayTest {
   void testTwoNodesMovedInDifferentChangesets() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.1, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 1.1, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(2L, 2, ofEpochSecond(2), 3, 3, "", true, emptyMap(), 2.2, 0.0)
+                    new OSMNode(2L, 1, 1, 1, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(2L, 2, 2, 3, 3, "", true, emptyMap(), 2.2, 0.0)
             )
 
     );
     var osh = List.of(
-            new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -162,7 +160,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 0
     assertEquals(2, contrib.members().size());
     assertEquals(1, contrib.members().getFirst().contrib().entity().version());
@@ -170,7 +168,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(2, contrib.changeset());
-    assertEquals(ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 1
     assertEquals(2, contrib.members().size());
     assertEquals(2, contrib.members().getFirst().contrib().entity().version());
@@ -179,7 +177,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(3, contrib.changeset());
-    assertEquals(ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 2
     assertEquals(2, contrib.members().size());
     assertEquals(2, contrib.members().getFirst().contrib().entity().version());
@@ -191,17 +189,17 @@ class ContributionsWayTest {
   void testTwoNodesMovedInDifferentChangesetsAtDifferentTimepoints() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.1, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 1.1, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(2L, 2, ofEpochSecond(3), 3, 3, "", true, emptyMap(), 2.2, 0.0)
+                    new OSMNode(2L, 1, 1, 1, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(2L, 2, 3, 3, 3, "", true, emptyMap(), 2.2, 0.0)
             )
 
     );
     var osh = List.of(
-            new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -210,7 +208,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 0
     assertEquals(2, contrib.members().size());
     assertEquals(1, contrib.members().getFirst().contrib().entity().version());
@@ -218,7 +216,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(2, contrib.changeset());
-    assertEquals(ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 1
     assertEquals(2, contrib.members().size());
     assertEquals(2, contrib.members().getFirst().contrib().entity().version());
@@ -227,7 +225,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(3, contrib.changeset());
-    assertEquals(ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
     assertEquals(1, contrib.entity().version());// minorVersion = 2
     assertEquals(2, contrib.members().size());
     assertEquals(2, contrib.members().getFirst().contrib().entity().version());
@@ -240,13 +238,13 @@ class ContributionsWayTest {
   void testNodeMovedMultipleTimesWithinOneChangeset() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(1L, 3, ofEpochSecond(3), 2, 2, "", true, emptyMap(), 3.0, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(1L, 3, 3, 2, 2, "", true, emptyMap(), 3.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L))
+            new OSMWay(10, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -255,12 +253,12 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());//minor version 0
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());//minor version 1
     contrib = contributions.next();
     assertEquals(2, contrib.changeset());
-    assertEquals(ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -270,13 +268,13 @@ class ContributionsWayTest {
   void testNodeTagsModifiedMultipleTimesWithinOneChangeset() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 3, ofEpochSecond(3), 2, 2, "", true, emptyMap(), 1.0, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 3, 3, 2, 2, "", true, emptyMap(), 1.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L))
+            new OSMWay(10, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -285,7 +283,7 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());//minor version 0
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -294,16 +292,16 @@ class ContributionsWayTest {
   void testTwoNodesMovedWithinOneChangeset() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.1, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 1.1, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(2L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 2.2, 0.0)
+                    new OSMNode(2L, 1, 1, 1, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(2L, 2, 2, 2, 2, "", true, emptyMap(), 2.2, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -324,16 +322,16 @@ class ContributionsWayTest {
   void testTwoNodesMovedAtDifferentTimepointsWithinOneChangeset() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 1.1, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 2, 2, 2, "", true, emptyMap(), 1.1, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(2L, 2, ofEpochSecond(3), 2, 2, "", true, emptyMap(), 2.2, 0.0)
+                    new OSMNode(2L, 1, 1, 1, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(2L, 2, 3, 2, 2, "", true, emptyMap(), 2.2, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -342,12 +340,12 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(2, contrib.changeset());
-    assertEquals(ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -356,16 +354,16 @@ class ContributionsWayTest {
   void testMultipleNodesMovedInReverseOrderWithinOneChangeset() {
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0),
-                    new OSMNode(1L, 2, ofEpochSecond(3), 2, 2, "", true, emptyMap(), 1.1, 0.0)
+                    new OSMNode(1L, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0),
+                    new OSMNode(1L, 2, 3, 2, 2, "", true, emptyMap(), 1.1, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2L, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 2.0, 0.0),
-                    new OSMNode(2L, 2, ofEpochSecond(2), 2, 2, "", true, emptyMap(), 2.2, 0.0)
+                    new OSMNode(2L, 1, 1, 1, 1, "", true, emptyMap(), 2.0, 0.0),
+                    new OSMNode(2L, 2, 2, 2, 2, "", true, emptyMap(), 2.2, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(12, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(12, 1, 1, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -374,12 +372,12 @@ class ContributionsWayTest {
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(1, contrib.changeset());
-    assertEquals(ofEpochSecond(1), contrib.timestamp());
+    assertEquals(1, contrib.timestamp());
 
     assertTrue(contributions.hasNext());
     contrib = contributions.next();
     assertEquals(2, contrib.changeset());
-    assertEquals(ofEpochSecond(3), contrib.timestamp());
+    assertEquals(3, contrib.timestamp());
 
     assertFalse(contributions.hasNext());
   }
@@ -388,14 +386,14 @@ class ContributionsWayTest {
   void testReferencedNodeHasOlderTimestampThanWay() {// why do we have more contributions than one if the position of nodes doesn't change??
     var nodes = Map.of(
             1L, List.of(
-                    new OSMNode(1, 1, ofEpochSecond(1), 1, 1, "", true, emptyMap(), 1.0, 0.0)
+                    new OSMNode(1, 1, 1, 1, 1, "", true, emptyMap(), 1.0, 0.0)
             ),
             2L, List.of(
-                    new OSMNode(2, 1, ofEpochSecond(3), 1, 1, "", true, emptyMap(), 2.0, 0.0)
+                    new OSMNode(2, 1, 3, 1, 1, "", true, emptyMap(), 2.0, 0.0)
             )
     );
     var osh = List.of(
-            new OSMWay(10, 1, ofEpochSecond(2), 1, 1, "", true, emptyMap(), List.of(1L, 2L))
+            new OSMWay(10, 1, 2, 1, 1, "", true, emptyMap(), List.of(1L, 2L))
     );
 
     var contributions = new ContributionsWay(osh, nodes);
@@ -406,7 +404,7 @@ class ContributionsWayTest {
     contrib = contributions.next();
     assertEquals(1, contrib.entity().version());
     assertEquals(1, contrib.changeset());
-    assertEquals(Instant.ofEpochSecond(2), contrib.timestamp());
+    assertEquals(2, contrib.timestamp());
     assertEquals(2, contrib.members().size());
 
 
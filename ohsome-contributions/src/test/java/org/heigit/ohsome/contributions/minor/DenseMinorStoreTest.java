@@ -0,0 +1,60 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.osm.OSMEntity.OSMNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DenseMinorStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<OSMNode> node(long id, double lon) {
+        return List.of(new OSMNode(id, 1, 1, 1, 1, "user-" + id, true, Map.of(), lon, 0.0));
+    }
+
+    @Test
+    void testGet() throws IOException {
+        try (var writer = new DenseMinorWriter(tempDir, 1)) {
+            writer.writeMinorNode(node(10, 1.0));
+            writer.writeMinorNode(node(13, 2.0));
+        }
+        try (var writer = new DenseMinorWriter(tempDir, 0)) {
+            writer.writeMinorNode(node(2, 3.0));
+            writer.writeMinorNode(node(3, 4.0));
+        }
+        // chunks without any history write no files
+        new DenseMinorWriter(tempDir, 2).close();
+
+        // tiny segments, so values span mapped segments
+        try (var store = DenseMinorStore.open(tempDir, 4)) {
+            for (var id : List.of(0L, 1L, 4L, 9L, 11L, 12L, 14L, 100L)) {
+                assertNull(store.get(id), "id " + id);
+            }
+            var nodes = store.get(Set.of(2L, 3L, 10L, 11L, 13L), MinorNode::deserialize);
+            assertEquals(Set.of(2L, 3L, 10L, 13L), nodes.keySet());
+            assertEquals(3.0, nodes.get(2L).getFirst().lon());
+            assertEquals(4.0, nodes.get(3L).getFirst().lon());
+            assertEquals(1.0, nodes.get(10L).getFirst().lon());
+            assertEquals(2.0, nodes.get(13L).getFirst().lon());
+            // names are resolved by the user dictionary
+            assertNull(nodes.get(13L).getFirst().user());
+        }
+    }
+
+    @Test
+    void testAscendingIds() throws IOException {
+        try (var writer = new DenseMinorWriter(tempDir, 0)) {
+            writer.writeMinorNode(node(10, 1.0));
+            assertThrows(IllegalArgumentException.class, () -> writer.writeMinorNode(node(10, 1.0)));
+        }
+    }
+}
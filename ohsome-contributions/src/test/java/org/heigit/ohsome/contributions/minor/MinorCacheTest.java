@@ -0,0 +1,76 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinorCacheTest {
+
+    /**
+     * Histories of even ids, the value is the id, every requested id is recorded.
+     */
+    private static class EvenStore implements MinorStore {
+        private final List<Long> requested = new ArrayList<>();
+
+        @Override
+        public <T> Map<Long, T> get(Collection<Long> ids, BiFunction<Long, ByteBuffer, T> deserializer) {
+            var map = new HashMap<Long, T>();
+            for (var id : ids) {
+                requested.add(id);
+                if (id % 2 == 0) {
+                    map.put(id, deserializer.apply(id, ByteBuffer.allocate(Long.BYTES).putLong(0, id)));
+                }
+            }
+            return map;
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsed() {
+        var store = new EvenStore();
+        // every history weighs 1, so at most 3 histories are cached
+        var cache = new MinorCache<>(store, (id, buffer) -> buffer.getLong(0), value -> 1, 3);
+
+        assertEquals(Map.of(2L, 2L, 4L, 4L), cache.get(Set.of(1L, 2L, 4L)));
+        assertEquals(3, store.requested.size());
+
+        store.requested.clear();
+        assertEquals(Map.of(2L, 2L, 6L, 6L), cache.get(List.of(2L, 6L)));
+        assertEquals(List.of(6L), store.requested);
+        assertEquals(3, cache.size());
+
+        // 4 is the least recently used one
+        store.requested.clear();
+        cache.get(List.of(8L));
+        cache.get(List.of(2L, 6L, 8L, 4L));
+        assertEquals(List.of(8L, 4L), store.requested);
+
+        assertEquals(4, cache.hits());
+        assertEquals(6, cache.misses());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    void testDisabled() {
+        var store = new EvenStore();
+        var cache = new MinorCache<>(store, (id, buffer) -> buffer.getLong(0), value -> 1, 0);
+        cache.get(List.of(2L));
+        cache.get(List.of(2L));
+        assertEquals(List.of(2L, 2L), store.requested);
+        assertEquals(0, cache.size());
+    }
+}
@@ -6,10 +6,11 @@ import org.heigit.ohsome.osm.OSMEntity.OSMWay;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-import static java.time.Instant.ofEpochSecond;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MinorTest {
@@ -17,13 +18,13 @@ class MinorTest {
     @Test
     void testMinorNode() throws IOException {
         var builder = MinorNode.newBuilder();
-        builder.add(new OSMEntity.OSMNode(123, 0, ofEpochSecond(0), 0, 1 , "test", false, Map.of(), 0.0, 0.0));
-        builder.add(new OSMEntity.OSMNode(123, 1, ofEpochSecond(1), 1, 1 , "test", true, Map.of(), 0.0, 0.0));
-        builder.add(new OSMEntity.OSMNode(123, 2, ofEpochSecond(2), 2, 1 , "test", true, Map.of(), 1.0, 1.0));
-        builder.add(new OSMEntity.OSMNode(123, 3, ofEpochSecond(3), 3, 1 , "test", true, Map.of("node","test"), 1.0, 1.0));
-        builder.add(new OSMEntity.OSMNode(123, 4, ofEpochSecond(4), 4, 1 , "test", true, Map.of(), 2.0, 2.0));
-        builder.add(new OSMEntity.OSMNode(123, 5, ofEpochSecond(5), 5, 1 , "test", false, Map.of(), 2.0, 2.0));
-        builder.add(new OSMEntity.OSMNode(123, 6, ofEpochSecond(6), 6, 6 , "6", true, Map.of(), 2.0, 2.0));
+        builder.add(new OSMEntity.OSMNode(123, 0, 0, 0, 1 , "test", false, Map.of(), 0.0, 0.0));
+        builder.add(new OSMEntity.OSMNode(123, 1, 1, 1, 1 , "test", true, Map.of(), 0.0, 0.0));
+        builder.add(new OSMEntity.OSMNode(123, 2, 2, 2, 1 , "test", true, Map.of(), 1.0, 1.0));
+        builder.add(new OSMEntity.OSMNode(123, 3, 3, 3, 1 , "test", true, Map.of("node","test"), 1.0, 1.0));
+        builder.add(new OSMEntity.OSMNode(123, 4, 4, 4, 1 , "test", true, Map.of(), 2.0, 2.0));
+        builder.add(new OSMEntity.OSMNode(123, 5, 5, 5, 1 , "test", false, Map.of(), 2.0, 2.0));
+        builder.add(new OSMEntity.OSMNode(123, 6, 6, 6, 6 , "6", true, Map.of(), 2.0, 2.0));
 
         try (var output = new Output(4 << 10)) {
             builder.serialize(output);
@@ -32,7 +33,7 @@ class MinorTest {
 
             assertEquals(5, osh.size());
 
-            assertEquals("test", osh.get(0).user());
+            assertNull(osh.get(0).user());
             assertEquals(0.0, osh.get(0).lon());
             assertEquals(1.0, osh.get(1).lon());
             assertEquals(2.0, osh.get(2).lon());
@@ -43,17 +44,22 @@ class MinorTest {
             assertEquals(2.0, osh.get(4).lon());
             assertTrue(osh.get(4).visible());
             assertEquals(6, osh.get(4).userId());
-            assertEquals("6", osh.get(4).user());
+
+            var users = new UserDictionary.Builder();
+            builder.addUsers(users);
+            var dictionary = users.build();
+            assertEquals("test", dictionary.name(1, 0));
+            assertEquals("6", dictionary.name(6, 6));
         }
     }
 
     @Test
     void testMinorWay() throws IOException {
         var builder = MinorWay.newBuilder();
-        builder.add(new OSMWay(123, 1, ofEpochSecond(1), 1, 1, "heigit", true, Map.of(), List.of(3L,4L,5L,1L,2L,3L)));
-        builder.add(new OSMWay(123, 2, ofEpochSecond(2), 2, 23, "ohsome", true, Map.of(), List.of(3L,4L,5L,1L,2L,3L)));
-        builder.add(new OSMWay(123, 3, ofEpochSecond(3), 3, 999, "test", false, Map.of(), List.of()));
-        builder.add(new OSMWay(123, 4, ofEpochSecond(4), 4, 123, "123", true, Map.of(), List.of(1L,2L,3L, 4L, 5L, 6L)));
+        builder.add(new OSMWay(123, 1, 1, 1, 1, "heigit", true, Map.of(), List.of(3L,4L,5L,1L,2L,3L)));
+        builder.add(new OSMWay(123, 2, 2, 2, 23, "ohsome", true, Map.of(), List.of(3L,4L,5L,1L,2L,3L)));
+        builder.add(new OSMWay(123, 3, 3, 3, 999, "test", false, Map.of(), List.of()));
+        builder.add(new OSMWay(123, 4, 4, 4, 123, "123", true, Map.of(), List.of(1L,2L,3L, 4L, 5L, 6L)));
 
         try (var output = new Output(4 << 10)){
             builder.serialize(output);
@@ -69,9 +75,25 @@ class MinorTest {
             assertEquals(999, osh.get(1).userId());
             assertEquals(123, osh.get(2).userId());
 
-            assertEquals("heigit", osh.getFirst().user());
-            assertEquals("test", osh.get(1).user());
-            assertEquals("123", osh.get(2).user());
+            assertNull(osh.getFirst().user());
+
+            var users = new UserDictionary.Builder();
+            builder.addUsers(users);
+            var dictionary = users.build();
+            assertEquals("heigit", dictionary.name(osh.getFirst().userId(), osh.getFirst().timestamp()));
+            assertEquals("test", dictionary.name(osh.get(1).userId(), osh.get(1).timestamp()));
+            assertEquals("123", dictionary.name(osh.get(2).userId(), osh.get(2).timestamp()));
+            // the version of user 23 is merged into the first one
+            assertEquals("", dictionary.name(23));
+
+            var decoder = new MinorWay.Decoder().decode(ByteBuffer.wrap(bytes));
+            assertEquals(3, decoder.size());
+            assertEquals(6, decoder.tableSize());
+            assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 5L, 6L}, Arrays.copyOf(decoder.table(), decoder.tableSize()));
+            assertEquals(6, decoder.refOffset(1));
+            assertEquals(0, decoder.refCount(1));
+            var first = Arrays.copyOfRange(decoder.indexes(), decoder.refOffset(0), decoder.refOffset(0) + decoder.refCount(0));
+            assertArrayEquals(new int[]{2, 3, 4, 0, 1, 2}, first);
 
         }
 
@@ -0,0 +1,109 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.heigit.ohsome.osm.OSMEntity.OSMNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.rocksdb.RocksDB;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RocksMinorStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testReadProfile(boolean partitionedFilters) throws IOException {
+        RocksDB.loadLibrary();
+        try (var cache = RocksUtil.CacheType.LRU.create(1 << 20);
+             var statistics = new Statistics()) {
+            var profile = new RocksUtil.ReadProfile(cache, partitionedFilters, statistics);
+            var config = new MinorStore.Config(MinorStore.Backend.ROCKSDB, profile);
+            for (var chunk = 0; chunk < 2; chunk++) {
+                try (var writer = config.writer(tempDir, chunk)) {
+                    for (var id = chunk * 1000L; id < chunk * 1000L + 1000; id += 2) {
+                        writer.writeMinorNode(List.of(new OSMNode(id, 1, 1, 1, 1, "", true, Map.of(), 1.0, 1.0)));
+                    }
+                }
+            }
+            config.finish(tempDir);
+
+            try (var store = config.open(tempDir)) {
+                var nodes = store.get(Set.of(0L, 1L, 998L, 1000L, 1001L, 1998L), MinorNode::deserialize);
+                assertEquals(Set.of(0L, 998L, 1000L, 1998L), nodes.keySet());
+            }
+            // odd ids are rejected by the bloom filters
+            assertTrue(statistics.getTickerCount(TickerType.BLOOM_FILTER_USEFUL) > 0);
+        }
+    }
+
+    @Test
+    void testBuckets() throws IOException {
+        RocksDB.loadLibrary();
+        var config = new MinorStore.Config(MinorStore.Backend.ROCKSDB, RocksUtil.ReadProfile.defaults(), true);
+        // bucket 3 (ids 768 to 1023) is shared by the chunks 0, 1 and 2
+        var chunks = List.of(
+                LongStream.range(0, 1000).filter(id -> id % 3 == 0).boxed().toList(),
+                List.of(1001L, 1010L),
+                List.of(1020L, 1300L, 1800L),
+                List.<Long>of());
+        for (var chunk = 0; chunk < chunks.size(); chunk++) {
+            try (var writer = config.writer(tempDir, chunk)) {
+                for (var id : chunks.get(chunk)) {
+                    writer.writeMinorNode(List.of(new OSMNode(id, 1, 1, 1, 1, "", true, Map.of(), id / 10.0, 1.0)));
+                }
+            }
+        }
+        config.finish(tempDir);
+
+        try (var store = config.open(tempDir)) {
+            var ids = LongStream.range(0, 2000).boxed().toList();
+            var nodes = store.get(ids, MinorNode::deserialize);
+            var expected = chunks.stream().<Long>mapMulti(Iterable::forEach).collect(Collectors.toSet());
+            assertEquals(expected, nodes.keySet());
+            nodes.forEach((id, osh) -> assertEquals(id / 10.0, osh.getFirst().lon()));
+        }
+    }
+
+    @Test
+    void testBucketsOfManyChunks() throws IOException {
+        RocksDB.loadLibrary();
+        var config = new MinorStore.Config(MinorStore.Backend.ROCKSDB, RocksUtil.ReadProfile.defaults(), true);
+        // one id per chunk, bucket 3 (ids 768 to 1023) is shared by the chunks 768 to 1023
+        var chunks = 1030;
+        for (var chunk = 0; chunk < chunks; chunk++) {
+            try (var writer = config.writer(tempDir, chunk)) {
+                writer.writeMinorNode(List.of(new OSMNode(chunk, 1, 1, 1, 1, "", true, Map.of(), chunk / 10.0, 1.0)));
+            }
+        }
+        config.finish(tempDir);
+
+        try (var store = config.open(tempDir)) {
+            var ids = LongStream.range(0, chunks + 10).boxed().toList();
+            var nodes = store.get(ids, MinorNode::deserialize);
+            assertEquals(LongStream.range(0, chunks).boxed().collect(Collectors.toSet()), nodes.keySet());
+            nodes.forEach((id, osh) -> assertEquals(id / 10.0, osh.getFirst().lon()));
+        }
+    }
+
+    @Test
+    void testChunk() {
+        assertEquals(7, RocksMinorStore.chunk(RocksMinorStore.boundaryPath(tempDir, 7)));
+        assertEquals(1010, RocksMinorStore.chunk(RocksMinorStore.ingestPath(tempDir, 1010)));
+    }
+}
@@ -0,0 +1,44 @@
+package org.heigit.ohsome.contributions.minor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserDictionaryTest {
+
+    @Test
+    void testRenames() {
+        var chunk0 = new UserDictionary.Builder();
+        chunk0.add(1, "alice", 10);
+        chunk0.add(1, "alice", 20);
+        chunk0.add(2, "bob", 15);
+        var chunk1 = new UserDictionary.Builder();
+        chunk1.add(1, "alicia", 30);
+        chunk1.add(1, "alicia", 40);
+        chunk1.add(1, "alice", 5);
+        // renamed back, the name of the versions in between still wins
+        chunk1.add(2, "robert", 20);
+        chunk1.add(2, "bob", 50);
+        chunk1.add(3, null, 10);
+
+        var users = new UserDictionary.Builder();
+        users.merge(chunk0);
+        users.merge(chunk1);
+        var dictionary = users.build();
+
+        assertEquals(2, dictionary.size());
+        assertEquals("alice", dictionary.name(1, 5));
+        assertEquals("alice", dictionary.name(1, 20));
+        assertEquals("alicia", dictionary.name(1, 30));
+        assertEquals("alicia", dictionary.name(1, 100));
+        assertEquals("alicia", dictionary.name(1));
+
+        assertEquals("bob", dictionary.name(2, 15));
+        assertEquals("robert", dictionary.name(2, 20));
+        assertEquals("bob", dictionary.name(2, 50));
+        assertEquals("bob", dictionary.name(2));
+
+        assertEquals("", dictionary.name(3, 10));
+        assertEquals("", UserDictionary.EMPTY.name(1, 10));
+    }
+}
@@ -4,12 +4,15 @@ import com.google.protobuf.ByteString;
 import crosby.binary.Osmformat;
 import org.heigit.ohsome.contributions.OSMIterator;
 import org.heigit.ohsome.osm.OSMEntity;
+import org.heigit.ohsome.osm.pbf.BlobHeader;
+import org.heigit.ohsome.osm.pbf.BlobType;
 import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.osm.pbf.ProtoZero;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static junit.framework.Assert.*;
 
@@ -107,4 +110,21 @@ class TransformerTest {
 
         assertFalse(entities.hasNext());
     }
+
+    @Test
+    void testChunksBySize() {
+        var blobs = IntStream.of(100, 10, 10, 10, 10, 50, 50, 5, 5)
+                .mapToObj(size -> new BlobHeader(0, BlobType.DATA, size))
+                .toList();
+        var chunks = Transformer.chunksBySize(blobs, 5);
+        // 250 bytes, at least 50 bytes per chunk
+        assertEquals(List.of(
+                new Transformer.Chunk(0, 1),
+                new Transformer.Chunk(1, 6),
+                new Transformer.Chunk(6, 7),
+                new Transformer.Chunk(7, 9)), chunks);
+
+        assertEquals(List.of(new Transformer.Chunk(0, 9)), Transformer.chunksBySize(blobs, 1));
+        assertEquals(9, Transformer.chunksBySize(blobs, 100).size());
+    }
 }
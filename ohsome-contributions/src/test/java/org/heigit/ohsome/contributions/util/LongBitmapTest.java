@@ -0,0 +1,60 @@
+package org.heigit.ohsome.contributions.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBitmapTest {
+
+    @Test
+    void testContains() {
+        var random = new Random(42);
+        var expected = new HashSet<Long>();
+        var a = LongBitmap.builder();
+        var b = LongBitmap.builder();
+        // a sparse and a dense container, ids with duplicates and in random order
+        for (var i = 0; i < 20_000; i++) {
+            var sparse = (3L << 16) + random.nextInt(3000);
+            var dense = (1L << 40) + random.nextInt(10_000);
+            expected.add(sparse);
+            expected.add(dense);
+            (i % 2 == 0 ? a : b).add(sparse);
+            (i % 3 == 0 ? a : b).add(dense);
+        }
+        a.add(0);
+        expected.add(0L);
+        a.merge(b);
+        var bitmap = a.build();
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        for (var id : expected) {
+            assertTrue(bitmap.test(id), "id " + id);
+        }
+        for (var id : new long[]{1, 3L << 16 | 3000, 2L << 16, (1L << 40) + 10_000, Long.MAX_VALUE}) {
+            assertFalse(bitmap.test(id), "id " + id);
+        }
+    }
+
+    @Test
+    void testNegative() {
+        var a = LongBitmap.builder();
+        var b = LongBitmap.builder();
+        a.add(-1);
+        a.add(5);
+        b.add(-20);
+        b.add(-1);
+        a.merge(b);
+        var bitmap = a.build();
+
+        assertEquals(3, bitmap.cardinality());
+        for (var id : new long[]{-20, -1, 5}) {
+            assertTrue(bitmap.test(id), "id " + id);
+        }
+        for (var id : new long[]{-2, -5, Long.MIN_VALUE, 1}) {
+            assertFalse(bitmap.test(id), "id " + id);
+        }
+    }
+}
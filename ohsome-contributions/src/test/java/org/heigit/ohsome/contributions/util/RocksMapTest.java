@@ -0,0 +1,52 @@
+package org.heigit.ohsome.contributions.util;
+
+import org.heigit.ohsome.contributions.rocksdb.RocksUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RocksMapTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String string(Long id, ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes);
+    }
+
+    @Test
+    void testGet() throws RocksDBException {
+        RocksDB.loadLibrary();
+        try (var options = RocksUtil.defaultOptions().setCreateIfMissing(true);
+             var db = RocksDB.open(options, tempDir.toString())) {
+            for (var id : List.of(1L, 2L, 5L, 300L, 1L << 40)) {
+                db.put(RocksUtil.longToByteArray(id), ("value-" + id).getBytes());
+            }
+            var large = "x".repeat(100);
+            db.put(RocksUtil.longToByteArray(7), large.getBytes());
+
+            // two keys per sub-batch and values larger than 16 bytes are fetched separately
+            var map = new RocksMap(db, 2, 16);
+            for (var i = 0; i < 2; i++) {
+                var values = map.get(Set.of(300L, 1L, 3L, 7L, 1L << 40, 5L, 2L), RocksMapTest::string);
+                assertEquals(6, values.size());
+                assertEquals("value-1", values.get(1L));
+                assertEquals("value-2", values.get(2L));
+                assertEquals("value-5", values.get(5L));
+                assertEquals(large, values.get(7L));
+                assertEquals("value-300", values.get(300L));
+                assertEquals("value-" + (1L << 40), values.get(1L << 40));
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.heigit.ohsome.planet;
 
 import org.heigit.ohsome.contributions.Contributions2Parquet;
 import org.heigit.ohsome.contributions.FileInfo;
+import org.heigit.ohsome.contributions.History;
 import picocli.CommandLine;
 
 import java.util.concurrent.Callable;
@@ -14,6 +15,7 @@ import static picocli.CommandLine.Command;
         description = "Transform OSM (history) PBF files into GeoParquet. Enrich with OSM changeset metadata and country information.%n",
         subcommands = {
             FileInfo.class,
+            History.class,
             Contributions2Parquet.class
         })
 public class OhsomePlanet implements Callable<Integer> {
@@ -5,18 +5,37 @@ import org.heigit.ohsome.util.io.Input;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
 public class Blob implements ProtoZero.Message {
+    private static final LongAdder INFLATER_REQUESTS = new LongAdder();
+    private static final LongAdder INFLATER_CREATED = new LongAdder();
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> {
+        INFLATER_CREATED.increment();
+        return new Inflater();
+    });
 
     public enum DataType {
-        RAW, ZLIB
+        RAW("none"), ZLIB("zlib"), LZMA("lzma"), BZIP2("bzip2"), LZ4("lz4"), ZSTD("zstd");
+
+        private final String codec;
+
+        DataType(String codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public String toString() {
+            return codec;
+        }
     }
 
     private int dataSize;
     private DataType dataType;
     private ByteBuffer data;
+    private Runnable release = () -> {};
 
     @Override
     public boolean decode(Input input, int tag) {
@@ -24,7 +43,10 @@ public class Blob implements ProtoZero.Message {
             case 10 -> data(DataType.RAW, input.readBuffer());
             case 16 -> dataSize(input.readU32());
             case 26 -> data(DataType.ZLIB, input.readBuffer());
-            case 34, 42, 50, 58 -> throw new UnsupportedOperationException(); // lzma, bzip2, lz4, zstd
+            case 34 -> data(DataType.LZMA, input.readBuffer());
+            case 42 -> data(DataType.BZIP2, input.readBuffer());
+            case 50 -> data(DataType.LZ4, input.readBuffer());
+            case 58 -> data(DataType.ZSTD, input.readBuffer());
             default -> {
                 // log skipped tags!
                 return false;
@@ -33,8 +55,15 @@ public class Blob implements ProtoZero.Message {
         return true;
     }
 
+    /**
+     * @return the raw (uncompressed) size of the blob data
+     */
     public int dataSize() {
-        return  dataSize;
+        if (dataSize == 0 && dataType == DataType.RAW && data != null) {
+            // raw_size is optional for uncompressed data
+            return data.remaining();
+        }
+        return dataSize;
     }
 
     public void dataSize(int size) {
@@ -57,18 +86,48 @@ public class Blob implements ProtoZero.Message {
         this.data = data;
     }
 
+    /**
+     * Registers a hook which hands the backing buffer of this blob back, e.g. to a {@link BufferPool}.
+     */
+    public Blob onRelease(Runnable release) {
+        this.release = release;
+        return this;
+    }
+
+    public void release() {
+        var r = release;
+        release = () -> {};
+        r.run();
+    }
+
+    /**
+     * Decompresses the blob with the codec of its {@link DataType}, see {@link BlobCodecs}.
+     */
     public static ByteBuffer decompress(Blob blob, ByteBuffer buffer) {
-        var inflater = new Inflater();
-        inflater.setInput(blob.data());
+        return BlobCodecs.decompress(blob, buffer);
+    }
+
+    static ByteBuffer inflate(ByteBuffer src, ByteBuffer dst) {
+        INFLATER_REQUESTS.increment();
+        var inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(src);
         try {
-            inflater.inflate(buffer);
-            inflater.end();
-            return buffer.flip();
+            inflater.inflate(dst);
+            return dst.flip();
         } catch (DataFormatException e) {
             throw new UncheckedIOException(new IOException(e));
         }
     }
 
+    /**
+     * Inflaters are reused per thread, hits are requests served by an already existing inflater.
+     */
+    public static BufferPool.Stats inflaterStats() {
+        var requests = INFLATER_REQUESTS.sum();
+        return new BufferPool.Stats("inflater", requests, Math.max(0, requests - INFLATER_CREATED.sum()));
+    }
+
     @Override
     public String toString() {
         return "Blob{" +
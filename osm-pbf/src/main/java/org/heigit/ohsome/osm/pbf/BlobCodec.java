@@ -0,0 +1,19 @@
+package org.heigit.ohsome.osm.pbf;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decompresses the data of a {@link Blob}. Implementations must be thread-safe.
+ *
+ * @see BlobCodecs
+ */
+@FunctionalInterface
+public interface BlobCodec {
+
+    /**
+     * @param src compressed blob data
+     * @param dst cleared buffer limited to the raw size of the blob
+     * @return dst flipped for reading
+     */
+    ByteBuffer decompress(ByteBuffer src, ByteBuffer dst);
+}
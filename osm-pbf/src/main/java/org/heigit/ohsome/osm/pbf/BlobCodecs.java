@@ -0,0 +1,71 @@
+package org.heigit.ohsome.osm.pbf;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import io.airlift.compress.MalformedInputException;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import org.heigit.ohsome.osm.pbf.Blob.DataType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link BlobCodec}s per {@link DataType}. zlib, lz4 and zstd are supported out of the box,
+ * further codecs (e.g. lzma) can be plugged in with {@link #register(DataType, BlobCodec)}.
+ */
+public class BlobCodecs {
+    private static final Map<DataType, BlobCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        register(DataType.RAW, (src, dst) -> dst.put(src).flip());
+        register(DataType.ZLIB, Blob::inflate);
+        register(DataType.LZ4, BlobCodecs::lz4);
+        register(DataType.ZSTD, BlobCodecs::zstd);
+    }
+
+    private BlobCodecs() {
+        // utility class
+    }
+
+    public static void register(DataType type, BlobCodec codec) {
+        CODECS.put(type, codec);
+    }
+
+    public static BlobCodec codec(DataType type) {
+        var codec = CODECS.get(type);
+        if (codec == null) {
+            throw new UnsupportedOperationException("Unsupported blob compression " + type);
+        }
+        return codec;
+    }
+
+    public static ByteBuffer decompress(Blob blob, ByteBuffer dst) {
+        return codec(blob.dataType()).decompress(blob.data(), dst);
+    }
+
+    private static ByteBuffer lz4(ByteBuffer src, ByteBuffer dst) {
+        try {
+            new Lz4Decompressor().decompress(src, dst);
+            return dst.flip();
+        } catch (MalformedInputException e) {
+            throw new UncheckedIOException(new IOException(e));
+        }
+    }
+
+    private static ByteBuffer zstd(ByteBuffer src, ByteBuffer dst) {
+        try {
+            if (src.isDirect() && dst.isDirect()) {
+                Zstd.decompress(dst, src);
+                return dst.flip();
+            }
+            var compressed = new byte[src.remaining()];
+            src.get(compressed);
+            return dst.put(Zstd.decompress(compressed, dst.remaining())).flip();
+        } catch (ZstdException e) {
+            throw new UncheckedIOException(new IOException(e));
+        }
+    }
+}
@@ -12,6 +12,12 @@ public class BlobHeader implements ProtoZero.Message {
         this.offset = offset;
     }
 
+    public BlobHeader(long offset, BlobType type, int dataSize) {
+        this.offset = offset;
+        this.type = type;
+        this.dataSize = dataSize;
+    }
+
 
     @Override
     public boolean decode(Input input, int tag) {
@@ -0,0 +1,271 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.osm.OSMType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Index of all data blobs of an {@link OSMPbf}, with the entity type and the first and last id of every blob.
+ * The index is persisted as a small sidecar file next to the pbf ({@code <name>.idx}) and validated against
+ * size and modification time of the pbf on load.
+ */
+public class BlobIndex {
+    private static final int MAGIC = 0x4f504249; // OPBI
+    private static final int VERSION = 2;
+
+    private final long fileSize;
+    private final long lastModified;
+    private final long[] offsets;
+    private final int[] dataSizes;
+    private final OSMType[] types;
+    private final long[] firstIds;
+    private final long[] lastIds;
+
+    private BlobIndex(long fileSize, long lastModified, long[] offsets, int[] dataSizes, OSMType[] types, long[] firstIds, long[] lastIds) {
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.offsets = offsets;
+        this.dataSizes = dataSizes;
+        this.types = types;
+        this.firstIds = firstIds;
+        this.lastIds = lastIds;
+    }
+
+    public static Path sidecar(Path path) {
+        return path.resolveSibling(path.getFileName() + ".idx");
+    }
+
+    /**
+     * Loads the sidecar index of the pbf, or builds and persists it if it does not exist or is outdated.
+     */
+    public static BlobIndex of(OSMPbf pbf) throws IOException {
+        return of(pbf, step -> {});
+    }
+
+    /**
+     * @param progress receives the number of bytes processed if the index has to be built
+     * @throws IOException also if the built index could not be persisted, use {@link #build(OSMPbf, LongConsumer)}
+     *                     and {@link #write(Path)} to handle that separately
+     */
+    public static BlobIndex of(OSMPbf pbf, LongConsumer progress) throws IOException {
+        var index = load(pbf.path());
+        if (index.isPresent()) {
+            return index.get();
+        }
+        var built = build(pbf, progress);
+        built.write(sidecar(pbf.path()));
+        return built;
+    }
+
+    /**
+     * @return the sidecar index of the pbf, empty if it does not exist or does not match the pbf
+     */
+    public static Optional<BlobIndex> load(Path path) throws IOException {
+        var sidecar = sidecar(path);
+        if (!Files.exists(sidecar)) {
+            return Optional.empty();
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Optional.empty();
+            }
+            var fileSize = in.readLong();
+            var lastModified = in.readLong();
+            if (fileSize != Files.size(path) || lastModified != Files.getLastModifiedTime(path).toMillis()) {
+                return Optional.empty();
+            }
+            var size = in.readInt();
+            var offsets = new long[size];
+            var dataSizes = new int[size];
+            var types = new OSMType[size];
+            var firstIds = new long[size];
+            var lastIds = new long[size];
+            for (var i = 0; i < size; i++) {
+                offsets[i] = in.readLong();
+                dataSizes[i] = in.readInt();
+                types[i] = OSMType.values()[in.readByte()];
+                firstIds[i] = in.readLong();
+                lastIds[i] = in.readLong();
+            }
+            return Optional.of(new BlobIndex(fileSize, lastModified, offsets, dataSizes, types, firstIds, lastIds));
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Scans all blob headers and decodes every data blob in parallel to determine its type and id range.
+     */
+    public static BlobIndex build(OSMPbf pbf, LongConsumer progress) throws IOException {
+        var path = pbf.path();
+        var lastModified = Files.getLastModifiedTime(path).toMillis();
+        List<BlobHeader> blobs;
+        try (var stream = pbf.blobs()) {
+            blobs = stream.toList();
+        }
+        var size = blobs.size();
+        var offsets = new long[size];
+        var dataSizes = new int[size];
+        var types = new OSMType[size];
+        var firstIds = new long[size];
+        var lastIds = new long[size];
+        // a blob and a block buffer for every worker of the common pool and the calling thread
+        var pool = new BufferPool("index buffers", 2 * (ForkJoinPool.getCommonPoolParallelism() + 1));
+        try (var source = pbf.blobSource()) {
+            IntStream.range(0, size).parallel().forEach(i -> {
+                var blob = blobs.get(i);
+                offsets[i] = blob.offset();
+                dataSizes[i] = blob.dataSize();
+                firstIds[i] = Long.MAX_VALUE;
+                lastIds[i] = Long.MIN_VALUE;
+                var block = BlockReader.readBlock(source, blob, pool);
+                try {
+                    var cursor = block.cursor();
+                    while (cursor.next()) {
+                        if (types[i] == null) {
+                            types[i] = cursor.type();
+                            firstIds[i] = cursor.id();
+                        } else if (types[i] != cursor.type()) {
+                            throw new IOException("Expecting only one type per block! but got " + types[i] + " and " + cursor.type());
+                        }
+                        lastIds[i] = cursor.id();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    block.release();
+                }
+                progress.accept(blob.dataSize());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (var i = 0; i < size; i++) {
+            if (types[i] == null) {
+                // empty block, keep it with its predecessor and its id range, so the last ids stay sorted
+                types[i] = i > 0 ? types[i - 1] : OSMType.NODE;
+                var previous = i > 0 ? lastIds[i - 1] : Long.MIN_VALUE;
+                firstIds[i] = previous;
+                lastIds[i] = previous;
+            }
+        }
+        return new BlobIndex(pbf.size(), lastModified, offsets, dataSizes, types, firstIds, lastIds);
+    }
+
+    public void write(Path sidecar) throws IOException {
+        var tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeInt(size());
+            for (var i = 0; i < size(); i++) {
+                out.writeLong(offsets[i]);
+                out.writeInt(dataSizes[i]);
+                out.writeByte(types[i].ordinal());
+                out.writeLong(firstIds[i]);
+                out.writeLong(lastIds[i]);
+            }
+        }
+        Files.move(tmp, sidecar, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    public BlobHeader blob(int i) {
+        return new BlobHeader(offsets[i], BlobType.DATA, dataSizes[i]);
+    }
+
+    public OSMType type(int i) {
+        return types[i];
+    }
+
+    /**
+     * @return the first id of the i-th blob, the last id of its predecessor ({@link Long#MIN_VALUE} for the first) if the blob is empty
+     */
+    public long firstId(int i) {
+        return firstIds[i];
+    }
+
+    /**
+     * @return the last id of the i-th blob, the last id of its predecessor ({@link Long#MIN_VALUE} for the first) if the blob is empty
+     */
+    public long lastId(int i) {
+        return lastIds[i];
+    }
+
+    /**
+     * Binary searches the blobs of the given type for the ones whose id range contains id.
+     * Histories of one id can span several consecutive blobs.
+     *
+     * @return the blob indices [from, to), empty if no blob contains id
+     */
+    public int[] range(OSMType type, long id) {
+        var low = 0;
+        var high = size();
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            var cmp = types[mid].compareTo(type);
+            if (cmp < 0 || cmp == 0 && lastIds[mid] < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        var to = low;
+        while (to < size() && types[to] == type && firstIds[to] <= id) {
+            to++;
+        }
+        return new int[]{low, to};
+    }
+
+    public List<BlobHeader> blobs() {
+        var blobs = new ArrayList<BlobHeader>(size());
+        for (var i = 0; i < size(); i++) {
+            blobs.add(blob(i));
+        }
+        return blobs;
+    }
+
+    /**
+     * Splits the blobs into the consecutive ranges of nodes, ways and relations.
+     */
+    public Map<OSMType, List<BlobHeader>> blobsByType() throws IOException {
+        var blobs = blobs();
+        if (!blobs.isEmpty() && types[0] != OSMType.NODE) {
+            throw new IOException("Expecting first block to contain NODES but got " + types[0]);
+        }
+        var startWays = start(OSMType.WAY);
+        var startRelations = start(OSMType.RELATION);
+        var map = new HashMap<OSMType, List<BlobHeader>>();
+        map.put(OSMType.NODE, blobs.subList(0, startWays));
+        map.put(OSMType.WAY, blobs.subList(startWays, startRelations));
+        map.put(OSMType.RELATION, blobs.subList(startRelations, blobs.size()));
+        return map;
+    }
+
+    private int start(OSMType type) throws IOException {
+        var start = 0;
+        while (start < size() && types[start].compareTo(type) < 0) {
+            start++;
+        }
+        for (var i = start; i < size(); i++) {
+            if (types[i].compareTo(type) < 0) {
+                throw new IOException("Expecting blocks sorted by type but got " + types[i] + " after " + type);
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,122 @@
+package org.heigit.ohsome.osm.pbf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Source of raw (still compressed) blob data for a given {@link BlobHeader}.
+ * Implementations are safe to be shared between threads.
+ */
+public interface BlobSource extends Closeable {
+
+    ByteBuffer blobBuffer(BlobHeader blobHeader) throws IOException;
+
+    /**
+     * Like {@link #blobBuffer(BlobHeader)}, but reads into a buffer acquired from the given pool if a copy is needed.
+     */
+    ByteBuffer blobBuffer(BlobHeader blobHeader, BufferPool pool) throws IOException;
+
+    default Blob blob(BlobHeader blobHeader) throws IOException {
+        return ProtoZero.decodeMessage(blobBuffer(blobHeader), Blob::new);
+    }
+
+    /**
+     * @return a blob whose {@link Blob#release()} hands the backing buffer back to the pool
+     */
+    default Blob blob(BlobHeader blobHeader, BufferPool pool) throws IOException {
+        var buffer = blobBuffer(blobHeader, pool);
+        return ProtoZero.decodeMessage(buffer, Blob::new).onRelease(() -> pool.release(buffer));
+    }
+
+    static BlobSource open(Path path, boolean mapped) throws IOException {
+        var ch = FileChannel.open(path, READ);
+        try {
+            return mapped ? new Mapped(ch) : new Channel(ch);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every blob with a positional read into a freshly allocated direct buffer.
+     */
+    class Channel implements BlobSource {
+        private final FileChannel ch;
+
+        public Channel(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        public FileChannel channel() {
+            return ch;
+        }
+
+        @Override
+        public ByteBuffer blobBuffer(BlobHeader blobHeader) throws IOException {
+            return OSMPbf.blobBuffer(ch, blobHeader);
+        }
+
+        @Override
+        public ByteBuffer blobBuffer(BlobHeader blobHeader, BufferPool pool) throws IOException {
+            return OSMPbf.blobBuffer(ch, blobHeader, pool.acquire(blobHeader.dataSize()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+
+    /**
+     * Maps the file in large read-only windows and hands out zero-copy slices.
+     * Consecutive windows overlap by {@link OSMPbf#MAX_BLOB_SIZE}, so every blob starting in a window
+     * is fully contained in it.
+     */
+    class Mapped implements BlobSource {
+        public static final long WINDOW_SIZE = 1L << 30; // 1 GB
+
+        private final FileChannel ch;
+        private final MappedByteBuffer[] windows;
+
+        public Mapped(FileChannel ch) throws IOException {
+            this.ch = ch;
+            var size = ch.size();
+            var count = (int) ((size + WINDOW_SIZE - 1) / WINDOW_SIZE);
+            this.windows = new MappedByteBuffer[count];
+            for (var i = 0; i < count; i++) {
+                var start = i * WINDOW_SIZE;
+                var length = Math.min(size - start, WINDOW_SIZE + OSMPbf.MAX_BLOB_SIZE);
+                windows[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+
+        @Override
+        public ByteBuffer blobBuffer(BlobHeader blobHeader, BufferPool pool) throws IOException {
+            return blobBuffer(blobHeader);
+        }
+
+        @Override
+        public ByteBuffer blobBuffer(BlobHeader blobHeader) throws IOException {
+            var offset = blobHeader.offset();
+            var window = windows[(int) (offset / WINDOW_SIZE)];
+            var pos = (int) (offset % WINDOW_SIZE);
+            if (pos + blobHeader.dataSize() > window.capacity()) {
+                // oversized blob, does not fit into the overlap
+                return OSMPbf.blobBuffer(ch, blobHeader);
+            }
+            return window.slice(pos, blobHeader.dataSize());
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
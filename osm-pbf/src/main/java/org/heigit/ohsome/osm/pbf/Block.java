@@ -16,11 +16,12 @@ public class Block implements Message {
 
     private final List<ByteBuffer> groups = new ArrayList<>();
     private ByteBuffer stringTable;
-    private List<String> strings;
+    private StringTable strings;
     private long granularity = 100;
     private long dateGranularity = 1000;
     private long lonOffset = 0;
     private long latOffset = 0;
+    private Runnable release = () -> {};
 
     @Override
     public boolean decode(Input input, int tag) {
@@ -38,10 +39,24 @@ public class Block implements Message {
         return true;
     }
 
-    public List<String> strings() {
+    /**
+     * Registers a hook which hands the backing buffer of this block back, e.g. to a {@link BufferPool}.
+     * The block must not be used after {@link #release()}.
+     */
+    public Block onRelease(Runnable release) {
+        this.release = release;
+        return this;
+    }
+
+    public void release() {
+        var r = release;
+        release = () -> {};
+        r.run();
+    }
+
+    public StringTable strings() {
         if (strings == null) {
-            strings = new ArrayList<>();
-            parseStringTable(stringTable);
+            strings = new StringTable(stringTable);
         }
         return strings;
     }
@@ -53,6 +68,13 @@ public class Block implements Message {
 
     }
 
+    /**
+     * @return a new allocation-free cursor over all entities of this block
+     */
+    public EntityCursor cursor() {
+        return new EntityCursor(this);
+    }
+
     private Group<? extends  OSMEntity> entities(Field field) {
         if (!(field instanceof ProtoZero.LenField(var tag, var buffer))) {
             throw new UnsupportedOperationException(String.format("Field %s is not a ProtoZero.LenField", field));
@@ -67,16 +89,6 @@ public class Block implements Message {
         };
     }
 
-    private void parseStringTable(ByteBuffer buffer) {
-        ProtoZero.decode(buffer, (input, tag) -> {
-            if (tag != 10) {
-                return false;
-            }
-            strings.add(input.readUTF8());
-            return true;
-        });
-    }
-
     public List<ByteBuffer> groups() {
         return groups;
     }
@@ -112,6 +124,20 @@ public class Block implements Message {
         return strings().get(idx);
     }
 
+    /**
+     * @return the tag key at idx, interned
+     */
+    public String key(int idx) {
+        return strings().key(idx);
+    }
+
+    /**
+     * @return the tag value at idx, interned if it is short
+     */
+    public String value(int idx) {
+        return strings().value(idx);
+    }
+
     public long parseTimestamp(long timestamp) {
         return timestamp * dateGranularity;
     }
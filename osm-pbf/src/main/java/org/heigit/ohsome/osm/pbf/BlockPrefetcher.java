@@ -0,0 +1,172 @@
+package org.heigit.ohsome.osm.pbf;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads and decompresses blocks ahead of their consumer on a shared pool of decompression threads.
+ * <p>
+ * Every consumer (e.g. a chunk worker) iterates its own range of blobs with {@link #blocks(List, int, int)}.
+ * Up to {@code depth} blocks of the range are in flight at any time and blocks are always delivered in
+ * blob order, so a consumer only waits if decompression can not keep up at all.
+ * With zero threads or a depth of zero, blocks are read synchronously on the consumer thread.
+ */
+public class BlockPrefetcher implements AutoCloseable {
+
+    /**
+     * @param depth   number of blocks read ahead per consumer
+     * @param threads number of shared decompression threads
+     */
+    public record Config(int depth, int threads) {
+
+        public static Config defaults() {
+            return new Config(4, Runtime.getRuntime().availableProcessors());
+        }
+
+        public static Config synchronous() {
+            return new Config(0, 0);
+        }
+    }
+
+    private final BlobSource source;
+    private final BufferPool pool;
+    private final int depth;
+    private final ExecutorService executor;
+
+    public BlockPrefetcher(BlobSource source, BufferPool pool, Config config) {
+        this.source = source;
+        this.pool = pool;
+        this.depth = config.threads() > 0 ? config.depth() : 0;
+        this.executor = depth > 0 ? Executors.newFixedThreadPool(config.threads(),
+                Thread.ofPlatform().name("block-prefetch-", 0).daemon().factory()) : null;
+    }
+
+    public BlobSource source() {
+        return source;
+    }
+
+    public BufferPool pool() {
+        return pool;
+    }
+
+    /**
+     * Blocks of the blobs {@code [from, blobs.size())}, only {@code [from, to)} are read ahead.
+     * Blocks beyond {@code to} are read on demand, e.g. to finish a history which continues past the end of a chunk.
+     */
+    public Blocks blocks(List<BlobHeader> blobs, int from, int to) {
+        return new Blocks(blobs, from, to);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ordered iterator over the blocks of one consumer. Every returned block has to be released by the consumer,
+     * blocks still in flight are released on {@link #close()}.
+     */
+    public class Blocks implements Iterator<Block>, AutoCloseable {
+        private final List<BlobHeader> blobs;
+        private final int from;
+        private final int to;
+        private final ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+        private int next;
+        private int submitted;
+
+        private Blocks(List<BlobHeader> blobs, int from, int to) {
+            this.blobs = blobs;
+            this.from = from;
+            this.to = to;
+            this.next = from;
+            this.submitted = from;
+            fill();
+        }
+
+        public int from() {
+            return from;
+        }
+
+        public int to() {
+            return to;
+        }
+
+        /**
+         * @return blob index of the block returned by the next call to {@link #next()}
+         */
+        public int index() {
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < blobs.size();
+        }
+
+        @Override
+        public Block next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Block block;
+            if (pending.isEmpty()) {
+                block = BlockReader.readBlock(source, blobs.get(next), pool);
+                submitted = Math.max(submitted, next + 1);
+            } else {
+                block = await(pending.poll());
+            }
+            next++;
+            fill();
+            return block;
+        }
+
+        private void fill() {
+            while (pending.size() < depth && submitted < to) {
+                var blob = blobs.get(submitted++);
+                pending.add(executor.submit(() -> BlockReader.readBlock(source, blob, pool)));
+            }
+        }
+
+        private static Block await(Future<Block> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io;
+                }
+                if (e.getCause() instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        @Override
+        public void close() {
+            next = blobs.size();
+            while (!pending.isEmpty()) {
+                var future = pending.poll();
+                try {
+                    future.get().release();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    // the consumer is done anyway
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package org.heigit.ohsome.osm.pbf;
 
+import org.heigit.ohsome.osm.OSMEntity;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import static org.heigit.ohsome.osm.pbf.OSMPbf.blobBuffer;
 import static org.heigit.ohsome.osm.pbf.OSMPbf.blockBuffer;
@@ -16,6 +20,66 @@ public class BlockReader {
         return ProtoZero.decodeMessage(blockBuffer, Block::new);
     }
 
+    public static Block readBlock(BlobSource source, BlobHeader blobHeader) {
+        var blockBuffer = readBlockBuffer(source, blobHeader);
+        return ProtoZero.decodeMessage(blockBuffer, Block::new);
+    }
+
+    /**
+     * Reads a block with buffers acquired from the pool. The blob buffer is released right after decompression,
+     * the block buffer with {@link Block#release()}.
+     */
+    public static Block readBlock(BlobSource source, BlobHeader blobHeader, BufferPool pool) {
+        try {
+            return decodeBlock(source.blob(blobHeader, pool), pool);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Block decodeBlock(Blob blob, BufferPool pool) {
+        ByteBuffer blockBuffer;
+        try {
+            blockBuffer = blockBuffer(blob, pool.acquire(blob.dataSize()));
+        } finally {
+            blob.release();
+        }
+        return ProtoZero.decodeMessage(blockBuffer, Block::new).onRelease(() -> pool.release(blockBuffer));
+    }
+
+    /**
+     * @return an iterator over the entities of the block, which releases the block once it is exhausted
+     */
+    public static Iterator<OSMEntity> entities(Block block) {
+        var entities = block.entities().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (entities.hasNext()) {
+                    return true;
+                }
+                block.release();
+                return false;
+            }
+
+            @Override
+            public OSMEntity next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return entities.next();
+            }
+        };
+    }
+
+    public static ByteBuffer readBlockBuffer(BlobSource source, BlobHeader blobHeader) {
+        try {
+            return blockBuffer(source.blob(blobHeader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static ByteBuffer readBlockBuffer(FileChannel ch, BlobHeader blobHeader) {
         try {
             var blobBuffer = blobBuffer(ch, blobHeader);
@@ -0,0 +1,70 @@
+package org.heigit.ohsome.osm.pbf;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe pool of direct buffers for blob and block data.
+ * Buffers can be released on a different thread than they have been acquired on.
+ * Read-only buffers (e.g. slices of a mapped file) are never pooled.
+ */
+public class BufferPool {
+    private static final int MIN_CAPACITY = 1 << 20; // 1 MB
+
+    public record Stats(String name, long requests, long hits) {
+
+        public double hitRate() {
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "%s: %d/%d hits (%.1f%%)".formatted(name, hits, requests, hitRate() * 100);
+        }
+    }
+
+    private final String name;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public BufferPool(String name, int maxPooled) {
+        this.name = name;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return a cleared direct buffer with at least the requested capacity
+     */
+    public ByteBuffer acquire(int capacity) {
+        requests.increment();
+        var buffer = buffers.poll();
+        if (buffer != null) {
+            pooled.decrementAndGet();
+            if (buffer.capacity() >= capacity) {
+                hits.increment();
+                return buffer.clear();
+            }
+        }
+        return ByteBuffer.allocateDirect(Math.max(MIN_CAPACITY, Integer.highestOneBit(capacity - 1) << 1));
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isReadOnly() || !buffer.isDirect()) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            buffers.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(name, requests.sum(), hits.sum());
+    }
+}
@@ -0,0 +1,227 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.osm.OSMEntity;
+import org.heigit.ohsome.osm.OSMType;
+import org.heigit.ohsome.osm.pbf.group.*;
+import org.heigit.ohsome.util.io.Input;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Flyweight cursor over the entities of a {@link Block}. The cursor exposes the primitive properties and
+ * string table indices of the current entity without materializing an {@link OSMEntity}.
+ * Group decoders are reused between entities, so values are only valid until the next call to {@link #next()}.
+ */
+public class EntityCursor {
+    private final Block block;
+    private final Iterator<ByteBuffer> groups;
+    private Input fields;
+
+    private GroupDense dense;
+    private GroupNode node;
+    private GroupWay way;
+    private GroupRelation relation;
+
+    private GroupDense currentDense;
+    private int denseIdx;
+    private GroupPrimitive<?> current;
+    private OSMType type;
+
+    EntityCursor(Block block) {
+        this.block = block;
+        this.groups = block.groups().iterator();
+    }
+
+    /**
+     * Advances the cursor to the next entity.
+     *
+     * @return false if there are no more entities in this block
+     */
+    public boolean next() {
+        while (true) {
+            if (currentDense != null && ++denseIdx < currentDense.size()) {
+                return true;
+            }
+            currentDense = null;
+            current = null;
+            if (fields != null && fields.hasRemaining()) {
+                var tag = fields.readU32();
+                if (ProtoZero.WireType.type(tag) != ProtoZero.WireType.LEN) {
+                    throw new UnsupportedOperationException("Unexpected field %d in primitive group".formatted(tag));
+                }
+                var buffer = fields.readBuffer();
+                switch (GroupType.of(tag)) {
+                    case DENSE -> {
+                        currentDense = ProtoZero.decode(buffer, dense().clear());
+                        denseIdx = -1;
+                        type = OSMType.NODE;
+                    }
+                    case NODE -> {
+                        current = ProtoZero.decode(buffer, node().clear());
+                        type = OSMType.NODE;
+                        return true;
+                    }
+                    case WAY -> {
+                        current = ProtoZero.decode(buffer, way().clear());
+                        type = OSMType.WAY;
+                        return true;
+                    }
+                    case RELATION -> {
+                        current = ProtoZero.decode(buffer, relation().clear());
+                        type = OSMType.RELATION;
+                        return true;
+                    }
+                    case CHANGESET -> throw new UnsupportedOperationException("Unsupported GroupType CHANGESET");
+                }
+            } else if (groups.hasNext()) {
+                fields = Input.fromBuffer(groups.next());
+            } else {
+                return false;
+            }
+        }
+    }
+
+    public OSMType type() {
+        return type;
+    }
+
+    public long id() {
+        return currentDense != null ? currentDense.id(denseIdx) : current.id();
+    }
+
+    public int version() {
+        return currentDense != null ? currentDense.version(denseIdx) : current.version();
+    }
+
+    /**
+     * @return timestamp in epoch milliseconds
+     */
+    public long timestamp() {
+        return currentDense != null ? currentDense.timestamp(denseIdx) : current.timestamp();
+    }
+
+    public long changeset() {
+        return currentDense != null ? currentDense.changeset(denseIdx) : current.changeset();
+    }
+
+    public int userId() {
+        return currentDense != null ? currentDense.userId(denseIdx) : current.userId();
+    }
+
+    /**
+     * @return string table index of the user name
+     */
+    public int userSid() {
+        return currentDense != null ? currentDense.userSid(denseIdx) : current.userSid();
+    }
+
+    public String user() {
+        var sid = userSid();
+        return sid != 0 ? block.string(sid) : "";
+    }
+
+    public boolean visible() {
+        return currentDense != null ? currentDense.visible(denseIdx) : current.visible();
+    }
+
+    public int tagCount() {
+        return currentDense != null ? currentDense.tagCount(denseIdx) : current.tagCount();
+    }
+
+    /**
+     * @return string table index of the key of the n-th tag
+     */
+    public int keySid(int n) {
+        return currentDense != null ? currentDense.keySid(denseIdx, n) : current.keySid(n);
+    }
+
+    /**
+     * @return string table index of the value of the n-th tag
+     */
+    public int valSid(int n) {
+        return currentDense != null ? currentDense.valSid(denseIdx, n) : current.valSid(n);
+    }
+
+    public Map<String, String> tags() {
+        return currentDense != null ? currentDense.tags(denseIdx) : current.tags();
+    }
+
+    public double lon() {
+        return currentDense != null ? currentDense.lon(denseIdx) : ((GroupNode) current).lon();
+    }
+
+    public double lat() {
+        return currentDense != null ? currentDense.lat(denseIdx) : ((GroupNode) current).lat();
+    }
+
+    public int refCount() {
+        return ((GroupWay) current).refCount();
+    }
+
+    public long ref(int n) {
+        return ((GroupWay) current).ref(n);
+    }
+
+    /**
+     * @return true if the current way carries the coordinates of its nodes (LocationsOnWays)
+     */
+    public boolean hasLocations() {
+        return ((GroupWay) current).hasLocations();
+    }
+
+    public double refLon(int n) {
+        return ((GroupWay) current).lon(n);
+    }
+
+    public double refLat(int n) {
+        return ((GroupWay) current).lat(n);
+    }
+
+    public int memberCount() {
+        return ((GroupRelation) current).memberCount();
+    }
+
+    public long memberId(int n) {
+        return ((GroupRelation) current).memberId(n);
+    }
+
+    public OSMType memberType(int n) {
+        return ((GroupRelation) current).memberType(n);
+    }
+
+    /**
+     * @return string table index of the role of the n-th member
+     */
+    public int memberRoleSid(int n) {
+        return ((GroupRelation) current).memberRoleSid(n);
+    }
+
+    public String string(int sid) {
+        return block.string(sid);
+    }
+
+    /**
+     * Materializes the current entity.
+     */
+    public OSMEntity entity() {
+        return currentDense != null ? currentDense.entity(denseIdx) : current.entity();
+    }
+
+    private GroupDense dense() {
+        return dense != null ? dense : (dense = new GroupDense(block));
+    }
+
+    private GroupNode node() {
+        return node != null ? node : (node = new GroupNode(block));
+    }
+
+    private GroupWay way() {
+        return way != null ? way : (way = new GroupWay(block));
+    }
+
+    private GroupRelation relation() {
+        return relation != null ? relation : (relation = new GroupRelation(block));
+    }
+}
@@ -55,6 +55,7 @@ public class Header implements ProtoZero.Message {
     }
 
     public static final String HISTORICAL_INFORMATION = "HistoricalInformation";
+    public static final String LOCATIONS_ON_WAYS = "LocationsOnWays";
     // required features
     //   "OsmSchema-V0.6" — File contains data with the OSM v0.6 schema.
     //   "DenseNodes" — File contains dense nodes and dense info.
@@ -135,6 +136,13 @@ public class Header implements ProtoZero.Message {
         return requiredFeatures.contains(HISTORICAL_INFORMATION);
     }
 
+    /**
+     * @return true if ways carry the coordinates of their nodes
+     */
+    public boolean locationsOnWays() {
+        return optionalFeatures.contains(LOCATIONS_ON_WAYS) || requiredFeatures.contains(LOCATIONS_ON_WAYS);
+    }
+
     @Override
     public String toString() {
         return "Header{" +
@@ -0,0 +1,108 @@
+package org.heigit.ohsome.osm.pbf;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Tag filter by key (and value predicate) which is pushed down to the string table of a {@link Block}.
+ * If none of the keys is part of the string table, no entity of the block can match and the block can be skipped
+ * without decoding any group. Otherwise entities are matched by comparing string table indices.
+ */
+public class KeyFilter {
+    private static final KeyFilter NONE = new KeyFilter(Map.of());
+
+    private final byte[][] keys;
+    private final Predicate<String>[] values;
+
+    @SuppressWarnings("unchecked")
+    public KeyFilter(Map<String, Predicate<String>> filter) {
+        this.keys = new byte[filter.size()][];
+        this.values = new Predicate[filter.size()];
+        var i = 0;
+        for (var entry : filter.entrySet()) {
+            keys[i] = entry.getKey().getBytes(UTF_8);
+            values[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    public static KeyFilter none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Resolves the filter keys to the string table indices of the block.
+     */
+    public Matcher matcher(Block block) {
+        if (isEmpty()) {
+            return Matcher.ALL;
+        }
+        var strings = block.strings();
+        var sids = new int[keys.length];
+        var predicates = new int[keys.length];
+        var found = 0;
+        for (var sid = 1; sid < strings.size(); sid++) {
+            for (var k = 0; k < keys.length; k++) {
+                if (strings.equals(sid, keys[k])) {
+                    if (found == sids.length) {
+                        // string tables are not required to be unique
+                        sids = Arrays.copyOf(sids, found * 2);
+                        predicates = Arrays.copyOf(predicates, found * 2);
+                    }
+                    sids[found] = sid;
+                    predicates[found++] = k;
+                    break;
+                }
+            }
+        }
+        var matched = new Predicate[found];
+        for (var i = 0; i < found; i++) {
+            matched[i] = values[predicates[i]];
+        }
+        return new Matcher(Arrays.copyOf(sids, found), matched);
+    }
+
+    public static class Matcher {
+        private static final Matcher ALL = new Matcher(null, null);
+
+        private final int[] sids;
+        private final Predicate<String>[] values;
+
+        private Matcher(int[] sids, Predicate<String>[] values) {
+            this.sids = sids;
+            this.values = values;
+        }
+
+        /**
+         * @return false if no entity of the block can match
+         */
+        public boolean mayMatch() {
+            return sids == null || sids.length > 0;
+        }
+
+        /**
+         * @return true if the current entity of the cursor has at least one matching tag
+         */
+        public boolean matches(EntityCursor cursor) {
+            if (sids == null) {
+                return true;
+            }
+            for (var n = 0; n < cursor.tagCount(); n++) {
+                var key = cursor.keySid(n);
+                for (var i = 0; i < sids.length; i++) {
+                    if (sids[i] == key && values[i].test(cursor.string(cursor.valSid(n)))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.heigit.ohsome.osm.pbf;
 
+import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMType;
 
 import java.io.Closeable;
@@ -11,15 +12,22 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class OSMPbf {
     public static final int MAX_BLOB_HEADER_SIZE = 64 * 1024; // 64 kB
+    public static final int MAX_BLOB_SIZE = 32 * 1024 * 1024; // 32 MB
 //    public static final int MAX_UNCOMPRESSED_BLOB_SIZE = 32 * 1024 * 1024; // 32 MB
 
     public static OSMPbf open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /**
+     * @param mapped if true, blobs are served as zero-copy slices of a memory mapped file, see {@link #blobSource()}
+     */
+    public static OSMPbf open(Path path, boolean mapped) throws IOException {
         try (var ch = FileChannel.open(path)) {
             var blobHeader = blobHeader(ch);
             if (blobHeader.type() != BlobType.HEADER) {
@@ -28,7 +36,7 @@ public class OSMPbf {
             var blob = blob(ch, blobHeader);
             var blockBuffer = blockBuffer(blob, ByteBuffer.allocateDirect(blob.dataSize()));
             var header = ProtoZero.decodeMessage(blockBuffer, Header::new);
-            return new OSMPbf(path, ch.size(), header);
+            return new OSMPbf(path, ch.size(), header, mapped);
         }
     }
 
@@ -75,20 +83,20 @@ public class OSMPbf {
             buffer = ByteBuffer.allocateDirect(blob.dataSize());
         }
         buffer.clear().limit(blob.dataSize());
-        return switch (blob.dataType()) {
-            case ZLIB -> Blob.decompress(blob, buffer);
-            case RAW -> buffer.put(blob.data()).flip();
-        };
+        return Blob.decompress(blob, buffer);
     }
 
     private final Path path;
     private final long size;
     private final Header header;
+    private final boolean mapped;
+    private BlobIndex blobIndex;
 
-    private OSMPbf(Path path, long size, Header header) {
+    private OSMPbf(Path path, long size, Header header, boolean mapped) {
         this.path = path;
         this.size = size;
         this.header = header;
+        this.mapped = mapped;
     }
 
     public Path path() {
@@ -103,6 +111,61 @@ public class OSMPbf {
         return header;
     }
 
+    public boolean mapped() {
+        return mapped;
+    }
+
+    /**
+     * Opens a new thread-safe {@link BlobSource} for this file, memory mapped if this pbf was opened in mapped mode.
+     */
+    public BlobSource blobSource() throws IOException {
+        return BlobSource.open(path, mapped);
+    }
+
+
+    /**
+     * Loads the persisted {@link BlobIndex} of this file, building it on first use.
+     */
+    public BlobIndex blobIndex() throws IOException {
+        if (blobIndex == null) {
+            blobIndex = BlobIndex.of(this);
+        }
+        return blobIndex;
+    }
+
+    /**
+     * Random access lookup of all versions of one entity. Only the blobs whose id range contains the id are decoded.
+     *
+     * @return all versions of the entity in file order, empty if the id does not exist
+     */
+    public List<OSMEntity> history(OSMType type, long id) throws IOException {
+        var index = blobIndex();
+        var range = index.range(type, id);
+        var versions = new ArrayList<OSMEntity>();
+        try (var ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (var i = range[0]; i < range[1]; i++) {
+                var cursor = BlockReader.readBlock(ch, index.blob(i)).cursor();
+                while (cursor.next()) {
+                    if (cursor.id() == id && cursor.type() == type) {
+                        versions.add(cursor.entity());
+                    } else if (cursor.id() > id) {
+                        break;
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * @return the compression of the first data blob, {@link Blob.DataType#RAW} for files without data
+     */
+    public Blob.DataType compression() throws IOException {
+        try (var blobs = blobs(); var ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            var first = blobs.findFirst();
+            return first.isPresent() ? blob(ch, first.get()).dataType() : Blob.DataType.RAW;
+        }
+    }
 
     public Stream<BlobHeader> blobs() {
         try {
@@ -135,61 +198,6 @@ public class OSMPbf {
         }
     }
 
-    public Map<OSMType, List<BlobHeader>> blobsByType(List<BlobHeader> blobs) throws IOException {
-        try (var ch = FileChannel.open(path, StandardOpenOption.READ)) {
-            var block = BlockReader.readBlock(ch, blobs.getFirst());
-            var types = block.groupTypes();
-            if (!Set.of(GroupType.DENSE, GroupType.NODE).contains(types.getFirst())) {
-                throw new IOException("Expecting first block to contain NODES but got " + types);
-            }
-            if (types.size() > 1) {
-                throw new IOException("Expecting only one block to contain NODES but got " + types);
-            }
-
-            var startWays = binarySearchInsertionPoint(blobs, 0, findStartOfType(ch, OSMType.WAY));
-            var startRelations = binarySearchInsertionPoint(blobs, startWays, findStartOfType(ch, OSMType.RELATION));
-            var map = new HashMap<OSMType, List<BlobHeader>>();
-            map.put(OSMType.NODE, blobs.subList(0, startWays));
-            map.put(OSMType.WAY, blobs.subList(startWays, startRelations));
-            map.put(OSMType.RELATION, blobs.subList(startRelations, blobs.size()));
-            return map;
-        } catch (UncheckedIOException uio) {
-            throw uio.getCause();
-        }
-    }
-
-    private static ToIntFunction<BlobHeader> findStartOfType(FileChannel ch, OSMType type) {
-        return blob -> {
-            try {
-                var block = BlockReader.readBlock(ch, blob);
-                var types = block.groupTypes();
-                if (types.size() > 1) {
-                    throw new IOException("Expecting only one type per block! but got " + types);
-                }
-                var cmp = types.getFirst().osmType().compareTo(type);
-                return cmp < 0 ? -1 : 1;
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
-        };
-    }
-
-    private static <T> int binarySearchInsertionPoint(List<T> list, int low, ToIntFunction<T> comparator) {
-        var high = list.size() - 1;
-        while (low <= high) {
-            var mid = (low + high) >>> 1;
-            var cmp = comparator.applyAsInt(list.get(mid));
-            if (cmp < 0) {
-                low = mid + 1;
-            } else if (cmp > 0) {
-                high = mid - 1;
-            } else {
-                throw new IllegalStateException();
-            }
-        }
-        return low;
-    }
-
     private static void closeQuietly(Closeable c) {
         try {
             c.close();
@@ -0,0 +1,174 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.util.io.Input;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Lazy string table of a {@link Block}. On first access only the offsets of all entries are indexed,
+ * strings are decoded on demand and cached per block.
+ * <p>
+ * Tag keys and short tag values are additionally interned in bounded global tables, so the same key
+ * of millions of blocks is retained only once. Keys and values have their own table, so the many distinct
+ * short values, like house numbers, cannot fill up the table before all keys are seen.
+ * Like the block itself, a string table is not thread-safe.
+ */
+public class StringTable extends AbstractList<String> {
+    private static final int MAX_INTERNED = 1 << 16;
+    private static final int MAX_INTERNED_VALUE_LENGTH = 16;
+    private static final Interner KEYS = new Interner(MAX_INTERNED);
+    private static final Interner VALUES = new Interner(MAX_INTERNED);
+
+    /**
+     * Bounded table of interned strings, strings are added until it is full and never evicted.
+     */
+    static class Interner {
+        private final int capacity;
+        private final ConcurrentHashMap<String, String> interned = new ConcurrentHashMap<>();
+
+        Interner(int capacity) {
+            this.capacity = capacity;
+        }
+
+        String intern(String string) {
+            var existing = interned.get(string);
+            if (existing != null) {
+                return existing;
+            }
+            if (interned.size() >= capacity) {
+                return string;
+            }
+            existing = interned.putIfAbsent(string, string);
+            return existing != null ? existing : string;
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final Interner keys;
+    private final Interner values;
+    private int size = -1;
+    private int[] offsets;
+    private int[] lengths;
+    private String[] strings;
+    private byte[] scratch = new byte[256];
+
+    public StringTable(ByteBuffer buffer) {
+        this(buffer, KEYS, VALUES);
+    }
+
+    StringTable(ByteBuffer buffer, Interner keys, Interner values) {
+        this.buffer = buffer;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    private void index() {
+        offsets = new int[256];
+        lengths = new int[256];
+        var n = 0;
+        if (buffer != null) {
+            var input = Input.fromBuffer(buffer);
+            while (input.hasRemaining()) {
+                var tag = input.readU32();
+                if (tag != 10) {
+                    throw new IllegalStateException("unexpected field in string table! [" + tag + "]");
+                }
+                var length = input.readU32();
+                if (n == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, n * 2);
+                    lengths = Arrays.copyOf(lengths, n * 2);
+                }
+                offsets[n] = (int) input.pos();
+                lengths[n] = length;
+                n++;
+                input.skip(length);
+            }
+        }
+        strings = new String[n];
+        size = n;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            index();
+        }
+        return size;
+    }
+
+    @Override
+    public String get(int idx) {
+        if (size < 0) {
+            index();
+        }
+        var string = strings[idx];
+        if (string == null) {
+            string = strings[idx] = decode(idx);
+        }
+        return string;
+    }
+
+    /**
+     * @return the string at idx, interned in the global table
+     */
+    public String key(int idx) {
+        return intern(idx, keys);
+    }
+
+    /**
+     * @return the string at idx, interned in the global table if it is short
+     */
+    public String value(int idx) {
+        var string = get(idx);
+        if (string.length() > MAX_INTERNED_VALUE_LENGTH) {
+            return string;
+        }
+        return intern(idx, values);
+    }
+
+    private String intern(int idx, Interner table) {
+        var string = get(idx);
+        var interned = table.intern(string);
+        if (interned != string) {
+            strings[idx] = interned;
+        }
+        return interned;
+    }
+
+    /**
+     * Compares the still encoded string at idx with the given utf-8 bytes without decoding it.
+     */
+    public boolean equals(int idx, byte[] utf8) {
+        if (size < 0) {
+            index();
+        }
+        var length = lengths[idx];
+        if (length != utf8.length) {
+            return false;
+        }
+        var offset = offsets[idx];
+        for (var i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int idx) {
+        var length = lengths[idx];
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Integer.highestOneBit(length) << 1];
+        }
+        buffer.get(offsets[idx], scratch, 0, length);
+        return new String(scratch, 0, length, UTF_8);
+    }
+}
@@ -4,6 +4,8 @@ import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.osm.pbf.ProtoZero;
 
+import java.util.Arrays;
+
 public abstract class Group<T extends OSMEntity> implements ProtoZero.Message, Iterable<T> {
     protected Block block;
 
@@ -11,6 +13,17 @@ public abstract class Group<T extends OSMEntity> implements ProtoZero.Message, I
         this.block = block;
     }
 
+    /**
+     * Grows the array, so a packed field of {@code len} bytes (at most {@code len} values) fits behind {@code size}.
+     */
+    protected static long[] ensure(long[] array, int size, int len) {
+        return size + len <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, size + len));
+    }
+
+    protected static int[] ensure(int[] array, int size, int len) {
+        return size + len <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, size + len));
+    }
+
     @Override
     public void finish() {
         this.block = null;
@@ -5,24 +5,45 @@ import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.util.io.Input;
 import org.heigit.ohsome.osm.pbf.ProtoZero;
 
-import java.time.Instant;
 import java.util.*;
 
+/**
+ * Columnar decoder for dense nodes. All properties are kept in primitive arrays, string properties as
+ * string table indices. {@link #entity(int)} materializes a single node on top of the columns.
+ */
 public class GroupDense extends Group<OSMNode> {
     private static final int DEFAULT_ENTITY_SIZE = 8000;
 
-    private final List<Long> ids = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Double> lons = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Double> lats = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Map<String, String>> tags = new ArrayList<>(DEFAULT_ENTITY_SIZE);
+    private long[] ids = new long[DEFAULT_ENTITY_SIZE];
+    private double[] lons = new double[DEFAULT_ENTITY_SIZE];
+    private double[] lats = new double[DEFAULT_ENTITY_SIZE];
+    private int[] versions = new int[DEFAULT_ENTITY_SIZE];
+    private long[] timestamps = new long[DEFAULT_ENTITY_SIZE];
+    private long[] changesets = new long[DEFAULT_ENTITY_SIZE];
+    private int[] userIds = new int[DEFAULT_ENTITY_SIZE];
+    private int[] users = new int[DEFAULT_ENTITY_SIZE];
+    private final BitSet visibilities = new BitSet(DEFAULT_ENTITY_SIZE);
+
+    // tags as key/value string indices, tagOffsets[i] to tagOffsets[i + 1] are the tags of the i-th node
+    private int[] keysVals = new int[DEFAULT_ENTITY_SIZE];
+    private int[] tagOffsets = new int[DEFAULT_ENTITY_SIZE + 1];
     private final Map<String, String> kvs = new LinkedHashMap<>();
 
-    private final List<Integer> versions = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Long> timestamps = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Long> changesets = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Integer> userIds = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<String> users = new ArrayList<>(DEFAULT_ENTITY_SIZE);
-    private final List<Boolean> visibilities = new ArrayList<>(DEFAULT_ENTITY_SIZE);
+    // decoded packed values which are converted before they are added to a column
+    private long[] packed = new long[DEFAULT_ENTITY_SIZE];
+    private int[] packedInts = new int[DEFAULT_ENTITY_SIZE];
+
+    private int idsSize;
+    private int lonsSize;
+    private int latsSize;
+    private int versionsSize;
+    private int timestampsSize;
+    private int changesetsSize;
+    private int userIdsSize;
+    private int usersSize;
+    private int visibilitiesSize;
+    private int keysValsSize;
+    private int tagsSize;
 
     // delta coded properties
     private long id;
@@ -41,50 +62,50 @@ public class GroupDense extends Group<OSMNode> {
     @Override
     public boolean decode(Input input, int tag) {
         switch (tag) {
-            case 8 -> ids.add(input.readS64());
+            case 8 -> addId(input.readS64());
             case 10 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    id += input.readS64();
-                    ids.add(id);
-                }
+                ids = ensure(ids, idsSize, len);
+                var n = input.readPackedS64Delta(ids, idsSize, len, id);
+                idsSize += n;
+                id = n > 0 ? ids[idsSize - 1] : id;
             }
             case 42 -> ProtoZero.decode(input.readBuffer(), this::parseInfo);
-            case 64 -> lats.add(block.parseLat(input.readS64()));
+            case 64 -> addLat(block.parseLat(input.readS64()));
             case 66 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    lat += input.readS64();
-                    lats.add(block.parseLat(lat));
+                packed = ensure(packed, 0, len);
+                var n = input.readPackedS64Delta(packed, 0, len, lat);
+                for (var i = 0; i < n; i++) {
+                    addLat(block.parseLat(packed[i]));
                 }
+                lat = n > 0 ? packed[n - 1] : lat;
             }
-            case 72 -> lons.add(block.parseLon(input.readS64()));
+            case 72 -> addLon(block.parseLon(input.readS64()));
             case 74 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    lon += input.readS64();
-                    lons.add(block.parseLon(lon));
+                packed = ensure(packed, 0, len);
+                var n = input.readPackedS64Delta(packed, 0, len, lon);
+                for (var i = 0; i < n; i++) {
+                    addLon(block.parseLon(packed[i]));
                 }
+                lon = n > 0 ? packed[n - 1] : lon;
             }
             case 80 -> throw new UnsupportedOperationException("primitiveGroup dense single keyvalue");
             case 82 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    var key = input.readU32();
+                packedInts = ensure(packedInts, 0, len);
+                var n = input.readPackedU32(packedInts, 0, len);
+                for (var i = 0; i < n; i++) {
+                    var key = packedInts[i];
                     if (key == 0) {
-                        tags.add(Map.copyOf(kvs));
-                        kvs.clear();
+                        addTagOffset();
                         continue;
                     }
-                    if (input.pos() == limit) {
+                    if (i + 1 == n) {
                         throw new IllegalStateException("no value after key!");
                     }
-                    var val = input.readU32();
-                    kvs.put(block.string(key), block.string(val));
+                    addKeyVal(key, packedInts[++i]);
                 }
             }
             default -> {
@@ -96,56 +117,52 @@ public class GroupDense extends Group<OSMNode> {
 
     private boolean parseInfo(Input input, int tag) {
         switch (tag) {
-            case 8 -> versions.add(input.readU32());
+            case 8 -> addVersion(input.readU32());
             case 10 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    versions.add(input.readU32());
-                }
+                versions = ensure(versions, versionsSize, len);
+                versionsSize += input.readPackedU32(versions, versionsSize, len);
             }
-            case 16 -> timestamps.add(input.readS64());
+            case 16 -> addTimestamp(block.parseTimestamp(input.readS64()));
             case 18 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    timestamp += input.readS64();
-                    timestamps.add(block.parseTimestamp(timestamp));
+                packed = ensure(packed, 0, len);
+                var n = input.readPackedS64Delta(packed, 0, len, timestamp);
+                for (var i = 0; i < n; i++) {
+                    addTimestamp(block.parseTimestamp(packed[i]));
                 }
+                timestamp = n > 0 ? packed[n - 1] : timestamp;
             }
-            case 24 -> changesets.add(input.readS64());
+            case 24 -> addChangeset(input.readS64());
             case 26 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    changeset += input.readS64();
-                    changesets.add((changeset));
-                }
+                changesets = ensure(changesets, changesetsSize, len);
+                var n = input.readPackedS64Delta(changesets, changesetsSize, len, changeset);
+                changesetsSize += n;
+                changeset = n > 0 ? changesets[changesetsSize - 1] : changeset;
             }
-            case 32 -> userIds.add(input.readS32());
+            case 32 -> addUserId(input.readS32());
             case 34 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    userId += input.readS32();
-                    userIds.add((userId));
-                }
+                userIds = ensure(userIds, userIdsSize, len);
+                var n = input.readPackedS32Delta(userIds, userIdsSize, len, userId);
+                userIdsSize += n;
+                userId = n > 0 ? userIds[userIdsSize - 1] : userId;
             }
-            case 40 -> users.add(block.string(input.readS32()));
+            case 40 -> addUser(input.readS32());
             case 42 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    user += input.readS32();
-                    users.add(block.string((user)));
-                }
+                users = ensure(users, usersSize, len);
+                var n = input.readPackedS32Delta(users, usersSize, len, user);
+                usersSize += n;
+                user = n > 0 ? users[usersSize - 1] : user;
             }
-            case 48 -> visibilities.add(input.readBool());
+            case 48 -> visibilities.set(visibilitiesSize++, input.readBool());
             case 50 -> {
                 var len = input.readU32();
                 var limit = input.pos() + len;
                 while (input.pos() < limit) {
-                    visibilities.add(input.readBool());
+                    visibilities.set(visibilitiesSize++, input.readBool());
                 }
             }
             default -> {
@@ -155,20 +172,189 @@ public class GroupDense extends Group<OSMNode> {
         return true;
     }
 
+    private void addId(long value) {
+        if (idsSize == ids.length) {
+            ids = Arrays.copyOf(ids, idsSize * 2);
+        }
+        ids[idsSize++] = value;
+    }
+
+    private void addLon(double value) {
+        if (lonsSize == lons.length) {
+            lons = Arrays.copyOf(lons, lonsSize * 2);
+        }
+        lons[lonsSize++] = value;
+    }
+
+    private void addLat(double value) {
+        if (latsSize == lats.length) {
+            lats = Arrays.copyOf(lats, latsSize * 2);
+        }
+        lats[latsSize++] = value;
+    }
+
+    private void addVersion(int value) {
+        if (versionsSize == versions.length) {
+            versions = Arrays.copyOf(versions, versionsSize * 2);
+        }
+        versions[versionsSize++] = value;
+    }
+
+    private void addTimestamp(long value) {
+        if (timestampsSize == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, timestampsSize * 2);
+        }
+        timestamps[timestampsSize++] = value;
+    }
+
+    private void addChangeset(long value) {
+        if (changesetsSize == changesets.length) {
+            changesets = Arrays.copyOf(changesets, changesetsSize * 2);
+        }
+        changesets[changesetsSize++] = value;
+    }
+
+    private void addUserId(int value) {
+        if (userIdsSize == userIds.length) {
+            userIds = Arrays.copyOf(userIds, userIdsSize * 2);
+        }
+        userIds[userIdsSize++] = value;
+    }
+
+    private void addUser(int value) {
+        if (usersSize == users.length) {
+            users = Arrays.copyOf(users, usersSize * 2);
+        }
+        users[usersSize++] = value;
+    }
+
+    private void addKeyVal(int key, int val) {
+        if (keysValsSize + 2 > keysVals.length) {
+            keysVals = Arrays.copyOf(keysVals, keysVals.length * 2);
+        }
+        keysVals[keysValsSize++] = key;
+        keysVals[keysValsSize++] = val;
+    }
+
+    private void addTagOffset() {
+        if (tagsSize + 2 > tagOffsets.length) {
+            tagOffsets = Arrays.copyOf(tagOffsets, tagOffsets.length * 2);
+        }
+        tagOffsets[++tagsSize] = keysValsSize;
+    }
+
+    /**
+     * Resets all columns, so the group can be reused for decoding the next dense group.
+     */
+    public GroupDense clear() {
+        idsSize = lonsSize = latsSize = versionsSize = timestampsSize = 0;
+        changesetsSize = userIdsSize = usersSize = visibilitiesSize = 0;
+        keysValsSize = tagsSize = 0;
+        visibilities.clear();
+        id = lon = lat = timestamp = changeset = 0;
+        userId = user = 0;
+        return this;
+    }
+
+    public int size() {
+        return idsSize;
+    }
+
+    public long id(int idx) {
+        return ids[idx];
+    }
+
+    public int version(int idx) {
+        return versionsSize > 0 ? versions[idx] : 0;
+    }
+
+    /**
+     * @return timestamp in epoch milliseconds
+     */
+    public long timestamp(int idx) {
+        return timestampsSize > 0 ? timestamps[idx] : 0;
+    }
+
+    public long changeset(int idx) {
+        return changesetsSize > 0 ? changesets[idx] : 0;
+    }
+
+    public int userId(int idx) {
+        return userIdsSize > 0 ? userIds[idx] : 0;
+    }
+
+    /**
+     * @return string table index of the user name, 0 if not present
+     */
+    public int userSid(int idx) {
+        return usersSize > 0 ? users[idx] : 0;
+    }
+
+    public String user(int idx) {
+        return usersSize > 0 && users[idx] != 0 ? block.string(users[idx]) : "";
+    }
+
+    public boolean visible(int idx) {
+        return visibilitiesSize == 0 || visibilities.get(idx);
+    }
+
+    public double lon(int idx) {
+        return lons[idx];
+    }
+
+    public double lat(int idx) {
+        return lats[idx];
+    }
+
+    public int tagCount(int idx) {
+        return idx < tagsSize ? (tagOffsets[idx + 1] - tagOffsets[idx]) / 2 : 0;
+    }
+
+    /**
+     * @return string table index of the key of the n-th tag of the entity at idx
+     */
+    public int keySid(int idx, int n) {
+        return keysVals[tagOffsets[idx] + 2 * n];
+    }
+
+    /**
+     * @return string table index of the value of the n-th tag of the entity at idx
+     */
+    public int valSid(int idx, int n) {
+        return keysVals[tagOffsets[idx] + 2 * n + 1];
+    }
+
+    public Map<String, String> tags(int idx) {
+        var count = tagCount(idx);
+        if (count == 0) {
+            return Map.of();
+        }
+        kvs.clear();
+        for (var n = 0; n < count; n++) {
+            kvs.put(block.key(keySid(idx, n)), block.value(valSid(idx, n)));
+        }
+        return Map.copyOf(kvs);
+    }
+
     public OSMNode entity(int idx) {
-        return new OSMNode(ids.get(idx),
-                !versions.isEmpty() ? versions.get(idx) : 0,
-                !timestamps.isEmpty() ? Instant.ofEpochMilli(timestamps.get(idx)) : Instant.EPOCH,
-                !changesets.isEmpty() ? changesets.get(idx) : 0,
-                !userIds.isEmpty() ? userIds.get(idx) : 0,
-                !users.isEmpty() ? users.get(idx) : "",
-                !visibilities.isEmpty() ? visibilities.get(idx) : true,
-                tags.get(idx),
-                lons.get(idx),
-                lats.get(idx)
+        return new OSMNode(id(idx),
+                version(idx),
+                timestampsSize > 0 ? timestamps[idx] / 1000 : 0,
+                changeset(idx),
+                userId(idx),
+                user(idx),
+                visible(idx),
+                tags(idx),
+                lon(idx),
+                lat(idx)
         );
     }
 
+    @Override
+    public void finish() {
+        // keep the block, entities are materialized lazily and resolve strings on demand
+    }
+
     @Override
     public Iterator<OSMNode> iterator() {
         return new EntityIterator();
@@ -179,7 +365,7 @@ public class GroupDense extends Group<OSMNode> {
 
         @Override
         public boolean hasNext() {
-            return idx < ids.size();
+            return idx < size();
         }
 
         @Override
@@ -31,9 +31,24 @@ public class GroupNode extends GroupPrimitive<OSMNode> {
         return true;
     }
 
+    @Override
+    public GroupNode clear() {
+        super.clear();
+        lon = lat = 0;
+        return this;
+    }
+
+    public double lon() {
+        return lon;
+    }
+
+    public double lat() {
+        return lat;
+    }
+
     @Override
     public OSMNode entity() {
-        return new OSMNode(id, version, timestamp, changeset, userId, user, visible, tags(), lon, lat);
+        return new OSMNode(id, version, epochSecond(), changeset, userId, user(), visible, tags(), lon, lat);
     }
 
 }
@@ -5,21 +5,23 @@ import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.util.io.Input;
 import org.heigit.ohsome.osm.pbf.ProtoZero;
 
-import java.time.Instant;
 import java.util.*;
 
 public abstract class GroupPrimitive<T extends OSMEntity> extends Group<T> {
 
     protected long id;
     protected int version;
-    protected Instant timestamp;
+    protected long timestamp;
     protected long changeset;
     protected int userId;
-    protected String user;
+    protected int user;
     protected boolean visible;
 
-    protected final List<String> keys = new ArrayList<>();
-    protected final List<String> vals = new ArrayList<>();
+    // key/value string indices
+    protected int[] keys = new int[16];
+    protected int[] vals = new int[16];
+    protected int keysSize;
+    protected int valsSize;
     protected final Map<String, String> kvs = new LinkedHashMap<>();
 
     protected Map<String, String> tags = Map.of();
@@ -30,10 +32,81 @@ public abstract class GroupPrimitive<T extends OSMEntity> extends Group<T> {
 
     public abstract T entity();
 
+    /**
+     * Resets all properties, so the group can be reused for decoding the next entity.
+     */
+    public GroupPrimitive<T> clear() {
+        id = 0;
+        version = 0;
+        timestamp = 0;
+        changeset = 0;
+        userId = 0;
+        user = 0;
+        visible = false;
+        keysSize = 0;
+        valsSize = 0;
+        return this;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    /**
+     * @return timestamp in epoch milliseconds
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public long changeset() {
+        return changeset;
+    }
+
+    public int userId() {
+        return userId;
+    }
+
+    /**
+     * @return string table index of the user name
+     */
+    public int userSid() {
+        return user;
+    }
+
+    public boolean visible() {
+        return visible;
+    }
+
+    public int tagCount() {
+        return keysSize;
+    }
+
+    /**
+     * @return string table index of the n-th key
+     */
+    public int keySid(int n) {
+        return keys[n];
+    }
+
+    /**
+     * @return string table index of the n-th value
+     */
+    public int valSid(int n) {
+        return vals[n];
+    }
+
     public Map<String, String> tags() {
+        if (keysSize == 0) {
+            return Map.of();
+        }
         kvs.clear();
-        for (var i = 0; i< keys.size(); i++) {
-            kvs.put(keys.get(i), vals.get(i));
+        for (var i = 0; i < keysSize; i++) {
+            kvs.put(block.key(keys[i]), block.value(vals[i]));
         }
         if (!tags.equals(kvs)) {
             tags = Map.copyOf(kvs);
@@ -41,24 +114,31 @@ public abstract class GroupPrimitive<T extends OSMEntity> extends Group<T> {
         return tags;
     }
 
+    /**
+     * @return timestamp in epoch seconds
+     */
+    protected long epochSecond() {
+        return timestamp / 1000;
+    }
+
+    protected String user() {
+        return user != 0 ? block.string(user) : "";
+    }
+
     public boolean decode(Input input, int tag) {
         switch (tag) {
             case 8 -> id = input.readU64();
-            case 16 -> keys.add(block.string(input.readU32()));
+            case 16 -> addKey(input.readU32());
             case 18 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    keys.add(block.string(input.readU32()));
-                }
+                keys = ensure(keys, keysSize, len);
+                keysSize += input.readPackedU32(keys, keysSize, len);
             }
-            case 24 -> vals.add(block.string(input.readU32()));
+            case 24 -> addVal(input.readU32());
             case 26 -> {
                 var len = input.readU32();
-                var limit = input.pos() + len;
-                while (input.pos() < limit) {
-                    vals.add(block.string(input.readU32()));
-                }
+                vals = ensure(vals, valsSize, len);
+                valsSize += input.readPackedU32(vals, valsSize, len);
             }
             case 34 -> ProtoZero.decode(input.readBuffer(), this::parseInfo);
             default -> {
@@ -68,13 +148,27 @@ public abstract class GroupPrimitive<T extends OSMEntity> extends Group<T> {
         return true;
     }
 
+    private void addKey(int key) {
+        if (keysSize == keys.length) {
+            keys = Arrays.copyOf(keys, keysSize * 2);
+        }
+        keys[keysSize++] = key;
+    }
+
+    private void addVal(int val) {
+        if (valsSize == vals.length) {
+            vals = Arrays.copyOf(vals, valsSize * 2);
+        }
+        vals[valsSize++] = val;
+    }
+
     private boolean parseInfo(Input input, int tag) {
         switch(tag) {
             case 8 -> version = input.readU32();
-            case 16 -> timestamp = Instant.ofEpochMilli(block.parseTimestamp(input.readU64()));
+            case 16 -> timestamp = block.parseTimestamp(input.readU64());
             case 24 -> changeset = input.readU64();
             case 32 -> userId = input.readU32();
-            case 40 -> user = block.string(input.readU32());
+            case 40 -> user = input.readU32();
             case 48 -> visible = input.readBool();
             default -> {
                 return false;
@@ -83,6 +177,11 @@ public abstract class GroupPrimitive<T extends OSMEntity> extends Group<T> {
         return true;
     }
 
+    @Override
+    public void finish() {
+        // keep the block, strings are resolved on demand
+    }
+
     @Override
     public Iterator<T> iterator() {
         return List.of(entity()).iterator();
@@ -2,27 +2,25 @@ package org.heigit.ohsome.osm.pbf.group;
 
 import org.heigit.ohsome.osm.OSMEntity.OSMRelation;
 import org.heigit.ohsome.osm.OSMMember;
+import org.heigit.ohsome.osm.OSMMembers;
 import org.heigit.ohsome.osm.OSMType;
 import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.util.io.Input;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 public class GroupRelation extends GroupPrimitive<OSMRelation> {
     public static final int MAX_RELATION_MEMBERS = 32000;
-//    public static final int AVG_RELATION_MEMBERS = 200;
+    public static final int AVG_RELATION_MEMBERS = 200;
 
-    private final List<String> roles = new ArrayList<>();
-    private final List<Long> memIds = new ArrayList<>();
-    private final List<OSMType> types = new ArrayList<>();
-
-    private final Map<OSMMember, OSMMember> cache = new HashMap<>();
-
-    private final List<OSMMember> mems = new ArrayList<>(MAX_RELATION_MEMBERS);
-    private List<OSMMember> members = new ArrayList<>();
+    // role string indices
+    private int[] roles = new int[AVG_RELATION_MEMBERS];
+    private long[] memIds = new long[AVG_RELATION_MEMBERS];
+    private int[] types = new int[AVG_RELATION_MEMBERS];
+    private int rolesSize;
+    private int memIdsSize;
+    private int typesSize;
 
     // delta encoded
     private long memId;
@@ -35,29 +33,25 @@ public class GroupRelation extends GroupPrimitive<OSMRelation> {
     public boolean decode(Input input, int tag) {
         if (!super.decode(input, tag)) {
             switch (tag) {
-                case 64 -> roles.add(block.string(input.readU32()));
+                case 64 -> addRole(input.readU32());
                 case 66 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        roles.add(block.string(input.readU32()));
-                    }
+                    roles = ensure(roles, rolesSize, len);
+                    rolesSize += input.readPackedU32(roles, rolesSize, len);
                 }
-                case 72 -> memIds.add(input.readS64());
+                case 72 -> addMemId(input.readS64());
                 case 74 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        memIds.add((memId += input.readS64()));
-                    }
+                    memIds = ensure(memIds, memIdsSize, len);
+                    var n = input.readPackedS64Delta(memIds, memIdsSize, len, memId);
+                    memIdsSize += n;
+                    memId = n > 0 ? memIds[memIdsSize - 1] : memId;
                 }
-                case 80 -> types.add(OSMType.parseType(input.readU32()));
+                case 80 -> addType(input.readU32());
                 case 82 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        types.add(OSMType.parseType(input.readU32()));
-                    }
+                    types = ensure(types, typesSize, len);
+                    typesSize += input.readPackedU32(types, typesSize, len);
                 }
                 default -> {
                     System.err.println("Unhandled tag: " + tag);
@@ -68,19 +62,68 @@ public class GroupRelation extends GroupPrimitive<OSMRelation> {
         return true;
     }
 
+    private void addRole(int value) {
+        if (rolesSize == roles.length) {
+            roles = Arrays.copyOf(roles, rolesSize * 2);
+        }
+        roles[rolesSize++] = value;
+    }
+
+    private void addMemId(long value) {
+        if (memIdsSize == memIds.length) {
+            memIds = Arrays.copyOf(memIds, memIdsSize * 2);
+        }
+        memIds[memIdsSize++] = value;
+    }
+
+    private void addType(int value) {
+        if (typesSize == types.length) {
+            types = Arrays.copyOf(types, typesSize * 2);
+        }
+        types[typesSize++] = value;
+    }
+
+    @Override
+    public GroupRelation clear() {
+        super.clear();
+        rolesSize = memIdsSize = typesSize = 0;
+        memId = 0;
+        return this;
+    }
+
+    public int memberCount() {
+        return memIdsSize;
+    }
+
+    public long memberId(int n) {
+        return memIds[n];
+    }
+
+    public OSMType memberType(int n) {
+        return OSMType.parseType(types[n]);
+    }
+
+    /**
+     * @return string table index of the role of the n-th member
+     */
+    public int memberRoleSid(int n) {
+        return roles[n];
+    }
+
     @Override
     public OSMRelation entity() {
-        return new OSMRelation(id, version, timestamp, changeset, userId, user, visible, tags(), members());
+        return new OSMRelation(id, version, epochSecond(), changeset, userId, user(), visible, tags(), members());
     }
 
+    /**
+     * @return members backed by a packed {@link OSMMembers} view, which the relation hands out without copying
+     */
     private List<OSMMember> members() {
-        for(var i=0; i<memIds.size(); i++) {
-            var member = new OSMMember(types.get(i), memIds.get(i), roles.get(i));
-            mems.add(cache.computeIfAbsent(member, k -> member));
-        }
-        if (!members.equals(mems)) {
-            members = List.copyOf(mems);
+        var memberTypes = new OSMType[memIdsSize];
+        for (var i = 0; i < memIdsSize; i++) {
+            memberTypes[i] = memberType(i);
         }
-        return members;
+        return OSMMembers.packed(memberTypes, Arrays.copyOf(memIds, memIdsSize), Arrays.copyOf(roles, memIdsSize), block::key)
+                .asList();
     }
 }
@@ -1,18 +1,19 @@
 package org.heigit.ohsome.osm.pbf.group;
 
+import org.heigit.ohsome.osm.LongList;
 import org.heigit.ohsome.osm.OSMEntity.OSMWay;
 import org.heigit.ohsome.osm.pbf.Block;
 import org.heigit.ohsome.util.io.Input;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 public class GroupWay extends GroupPrimitive<OSMWay> {
-    private final List<Long> refs = new ArrayList<>();
-    private final List<Long> lats = new ArrayList<>();
-    private final List<Long> lons = new ArrayList<>();
-
-    private List<Long> members = new ArrayList<>();
+    private long[] refs = new long[256];
+    private long[] lats = new long[0];
+    private long[] lons = new long[0];
+    private int refsSize;
+    private int latsSize;
+    private int lonsSize;
 
     // delta encoded
     private long ref = 0;
@@ -27,29 +28,29 @@ public class GroupWay extends GroupPrimitive<OSMWay> {
     public boolean decode(Input input, int tag) {
         if (!super.decode(input, tag)) {
             switch (tag) {
-                case 64 -> refs.add(input.readS64());
+                case 64 -> addRef(input.readS64());
                 case 66 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        refs.add((ref += input.readS64()));
-                    }
+                    refs = ensure(refs, refsSize, len);
+                    var n = input.readPackedS64Delta(refs, refsSize, len, ref);
+                    refsSize += n;
+                    ref = n > 0 ? refs[refsSize - 1] : ref;
                 }
-                case 72 -> lats.add(input.readS64());
+                case 72 -> addLat(input.readS64());
                 case 74 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        lats.add((lat += input.readS64()));
-                    }
+                    lats = ensure(lats, latsSize, len);
+                    var n = input.readPackedS64Delta(lats, latsSize, len, lat);
+                    latsSize += n;
+                    lat = n > 0 ? lats[latsSize - 1] : lat;
                 }
-                case 80 -> lons.add(input.readS64());
+                case 80 -> addLon(input.readS64());
                 case 82 -> {
                     var len = input.readU32();
-                    var limit = input.pos() + len;
-                    while (input.pos() < limit) {
-                        lons.add((lon += input.readS64()));
-                    }
+                    lons = ensure(lons, lonsSize, len);
+                    var n = input.readPackedS64Delta(lons, lonsSize, len, lon);
+                    lonsSize += n;
+                    lon = n > 0 ? lons[lonsSize - 1] : lon;
                 }
                 default -> {
                     return false;
@@ -59,12 +60,68 @@ public class GroupWay extends GroupPrimitive<OSMWay> {
         return true;
     }
 
+    private void addRef(long value) {
+        if (refsSize == refs.length) {
+            refs = Arrays.copyOf(refs, refsSize * 2);
+        }
+        refs[refsSize++] = value;
+    }
+
+    private void addLat(long value) {
+        if (latsSize == lats.length) {
+            lats = Arrays.copyOf(lats, Math.max(refs.length, latsSize * 2));
+        }
+        lats[latsSize++] = value;
+    }
+
+    private void addLon(long value) {
+        if (lonsSize == lons.length) {
+            lons = Arrays.copyOf(lons, Math.max(refs.length, lonsSize * 2));
+        }
+        lons[lonsSize++] = value;
+    }
+
+    @Override
+    public GroupWay clear() {
+        super.clear();
+        refsSize = latsSize = lonsSize = 0;
+        ref = lat = lon = 0;
+        return this;
+    }
+
+    public int refCount() {
+        return refsSize;
+    }
+
+    public long ref(int n) {
+        return refs[n];
+    }
+
+    public boolean hasLocations() {
+        return latsSize > 0 && latsSize == refsSize && lonsSize == refsSize;
+    }
+
+    /**
+     * @return longitude of the n-th node, only valid if {@link #hasLocations()}
+     */
+    public double lon(int n) {
+        return block.parseLon(lons[n]);
+    }
+
+    /**
+     * @return latitude of the n-th node, only valid if {@link #hasLocations()}
+     */
+    public double lat(int n) {
+        return block.parseLat(lats[n]);
+    }
+
     @Override
     public OSMWay entity() {
-        if (!members.equals(refs)) {
-            members = List.copyOf(refs);
-        }
-        return new OSMWay(id, version, timestamp, changeset, userId, user, visible, tags(), members, lons, lats);
+        return new OSMWay(id, version, epochSecond(), changeset, userId, user(), visible, tags(),
+                copy(refs, refsSize), copy(lons, lonsSize), copy(lats, latsSize));
     }
 
+    private static LongList copy(long[] values, int size) {
+        return LongList.wrap(Arrays.copyOf(values, size), 0, size);
+    }
 }
@@ -2,6 +2,7 @@ package org.heigit.ohsome.util.io;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public abstract class Input {
@@ -36,6 +37,50 @@ public abstract class Input {
     return decodeZigZag64(readU64());
   }
 
+  /**
+   * Decodes {@code len} bytes of packed zigzag varints as running sums (delta coding) starting from {@code base}.
+   * {@code dst} needs room for up to {@code len} values after {@code off}.
+   *
+   * @return the number of decoded values
+   */
+  public int readPackedS64Delta(long[] dst, int off, int len, long base) {
+    var limit = pos() + len;
+    var n = off;
+    while (pos() < limit) {
+      base += readS64();
+      dst[n++] = base;
+    }
+    return n - off;
+  }
+
+  /**
+   * Like {@link #readPackedS64Delta(long[], int, int, long)} for 32-bit values.
+   */
+  public int readPackedS32Delta(int[] dst, int off, int len, int base) {
+    var limit = pos() + len;
+    var n = off;
+    while (pos() < limit) {
+      base += readS32();
+      dst[n++] = base;
+    }
+    return n - off;
+  }
+
+  /**
+   * Decodes {@code len} bytes of packed unsigned varints.
+   * {@code dst} needs room for up to {@code len} values after {@code off}.
+   *
+   * @return the number of decoded values
+   */
+  public int readPackedU32(int[] dst, int off, int len) {
+    var limit = pos() + len;
+    var n = off;
+    while (pos() < limit) {
+      dst[n++] = readU32();
+    }
+    return n - off;
+  }
+
 
   public abstract ByteBuffer readBuffer();
 
@@ -60,11 +105,95 @@ public abstract class Input {
   }
 
 
+  /**
+   * Reads from a byte buffer. Packed fields are decoded with absolute reads, 1 and 2 byte varints bytewise and
+   * longer ones eight bytes at a time: the stop bit is located in one little endian word and the 7 bit groups
+   * are gathered with three shift/mask steps.
+   */
   public static class ByteBufferInput extends Input {
+    private static final long STOP_BITS = 0x8080808080808080L;
+
     private final ByteBuffer buffer;
+    // position after the last varint decoded by varint(int)
+    private int next;
 
     public ByteBufferInput(ByteBuffer buffer) {
-      this.buffer = buffer.duplicate();
+      this.buffer = buffer.duplicate().order(LITTLE_ENDIAN);
+    }
+
+    @Override
+    public int readPackedS64Delta(long[] dst, int off, int len, long base) {
+      next = buffer.position();
+      var limit = next + len;
+      var n = off;
+      while (next < limit) {
+        base += decodeZigZag64(varint(limit));
+        dst[n++] = base;
+      }
+      buffer.position(limit);
+      return n - off;
+    }
+
+    @Override
+    public int readPackedS32Delta(int[] dst, int off, int len, int base) {
+      next = buffer.position();
+      var limit = next + len;
+      var n = off;
+      while (next < limit) {
+        base += decodeZigZag32(Math.toIntExact(varint(limit)));
+        dst[n++] = base;
+      }
+      buffer.position(limit);
+      return n - off;
+    }
+
+    @Override
+    public int readPackedU32(int[] dst, int off, int len) {
+      next = buffer.position();
+      var limit = next + len;
+      var n = off;
+      while (next < limit) {
+        dst[n++] = Math.toIntExact(varint(limit));
+      }
+      buffer.position(limit);
+      return n - off;
+    }
+
+    private long varint(int limit) {
+      var pos = next;
+      long b0 = buffer.get(pos);
+      if (b0 >= 0) {
+        next = pos + 1;
+        return b0;
+      }
+      if (pos + 1 < limit) {
+        long b1 = buffer.get(pos + 1);
+        if (b1 >= 0) {
+          next = pos + 2;
+          return (b0 & 0x7F) | b1 << 7;
+        }
+      }
+      if (limit - pos >= Long.BYTES) {
+        var word = buffer.getLong(pos);
+        var stops = ~word & STOP_BITS;
+        if (stops != 0) {
+          var bytes = (Long.numberOfTrailingZeros(stops) >>> 3) + 1;
+          next = pos + bytes;
+          return gather(word, bytes);
+        }
+      }
+      // near the end of the field or longer than eight bytes
+      buffer.position(pos);
+      var value = readU64();
+      next = buffer.position();
+      return value;
+    }
+
+    private static long gather(long word, int bytes) {
+      var v = bytes == Long.BYTES ? word : word & ((1L << (bytes << 3)) - 1);
+      v = (v & 0x007F007F007F007FL) | (v & 0x7F007F007F007F00L) >>> 1;
+      v = (v & 0x00003FFF00003FFFL) | (v & 0x3FFF00003FFF0000L) >>> 2;
+      return (v & 0x000000000FFFFFFFL) | (v & 0x0FFFFFFF00000000L) >>> 4;
     }
 
     @Override
@@ -0,0 +1,38 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.osm.OSMEntity;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlobCodecsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(value = Blob.DataType.class, names = {"RAW", "ZLIB", "LZ4", "ZSTD"})
+    void testCodec(Blob.DataType compression) throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2, 3),
+                TestPbf.ways(1, 2)), compression);
+        var pbf = OSMPbf.open(path);
+        assertEquals(compression, pbf.compression());
+
+        for (var mapped : List.of(false, true)) {
+            try (var source = BlobSource.open(path, mapped)) {
+                var ids = pbf.blobs()
+                        .flatMap(blob -> BlockReader.readBlock(source, blob).entities())
+                        .map(OSMEntity::id)
+                        .toList();
+                assertEquals(List.of(1L, 2L, 3L, 1L, 2L), ids);
+            }
+        }
+    }
+}
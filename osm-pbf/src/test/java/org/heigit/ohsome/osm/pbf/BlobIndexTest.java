@@ -0,0 +1,102 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.osm.OSMType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBuildAndLoad() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2, 3),
+                TestPbf.nodes(4, 5),
+                TestPbf.ways(1, 2),
+                TestPbf.relations(7, 9)));
+        var pbf = OSMPbf.open(path);
+        assertTrue(BlobIndex.load(path).isEmpty());
+
+        var index = pbf.blobIndex();
+        assertTrue(Files.exists(BlobIndex.sidecar(path)));
+        assertEquals(4, index.size());
+        assertEquals(OSMType.WAY, index.type(2));
+        assertEquals(4, index.firstId(1));
+        assertEquals(5, index.lastId(1));
+        assertEquals(9, index.lastId(3));
+
+        var blobs = pbf.blobs().toList();
+        var loaded = BlobIndex.load(path).orElseThrow();
+        for (var i = 0; i < blobs.size(); i++) {
+            assertEquals(blobs.get(i).offset(), loaded.blob(i).offset());
+            assertEquals(blobs.get(i).dataSize(), loaded.blob(i).dataSize());
+            assertEquals(index.type(i), loaded.type(i));
+            assertEquals(index.firstId(i), loaded.firstId(i));
+        }
+
+        var byType = loaded.blobsByType();
+        assertEquals(2, byType.get(OSMType.NODE).size());
+        assertEquals(1, byType.get(OSMType.WAY).size());
+        assertEquals(1, byType.get(OSMType.RELATION).size());
+    }
+
+    @Test
+    void testOutdatedSidecar() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(TestPbf.nodes(1, 2, 3)));
+        OSMPbf.open(path).blobIndex();
+        assertTrue(BlobIndex.load(path).isPresent());
+
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 1000));
+        assertTrue(BlobIndex.load(path).isEmpty());
+    }
+
+    @Test
+    void testHistory() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2, 3),
+                TestPbf.nodes(3, 3, 4),
+                TestPbf.nodes(6),
+                TestPbf.ways(3),
+                TestPbf.relations(3)));
+        var pbf = OSMPbf.open(path);
+
+        assertEquals(3, pbf.history(OSMType.NODE, 3).size());
+        assertEquals(1, pbf.history(OSMType.NODE, 6).size());
+        assertEquals(0, pbf.history(OSMType.NODE, 5).size());
+        assertEquals(OSMType.WAY, pbf.history(OSMType.WAY, 3).getFirst().type());
+        assertEquals(OSMType.RELATION, pbf.history(OSMType.RELATION, 3).getFirst().type());
+        assertEquals(0, pbf.history(OSMType.RELATION, 4).size());
+    }
+
+    @Test
+    void testEmptyBlob() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2),
+                TestPbf.nodes(3, 4),
+                TestPbf.nodes(5, 6),
+                TestPbf.nodes(),
+                TestPbf.nodes(7, 8),
+                TestPbf.ways(3)));
+        var pbf = OSMPbf.open(path);
+        var index = pbf.blobIndex();
+        assertEquals(OSMType.NODE, index.type(3));
+        assertEquals(6, index.firstId(3));
+        assertEquals(6, index.lastId(3));
+
+        for (var id = 1; id <= 8; id++) {
+            assertEquals(1, pbf.history(OSMType.NODE, id).size(), "node " + id);
+        }
+        assertEquals(0, pbf.history(OSMType.NODE, 9).size());
+        assertEquals(1, pbf.history(OSMType.WAY, 3).size());
+    }
+}
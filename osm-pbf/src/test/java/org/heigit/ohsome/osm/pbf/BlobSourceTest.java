@@ -0,0 +1,68 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.heigit.ohsome.osm.OSMEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlobSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMappedEqualsChannel() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2, 3),
+                TestPbf.nodes(4, 5),
+                TestPbf.ways(1, 2),
+                TestPbf.relations(1)));
+
+        var pbf = OSMPbf.open(path, true);
+        assertTrue(pbf.mapped());
+        var blobs = pbf.blobs().toList();
+        assertEquals(4, blobs.size());
+
+        try (var channel = BlobSource.open(path, false);
+             var mapped = pbf.blobSource()) {
+            for (var blob : blobs) {
+                assertEquals(channel.blobBuffer(blob), mapped.blobBuffer(blob));
+                var expected = BlockReader.readBlock(channel, blob).entities().map(OSMEntity::osmId).toList();
+                var actual = BlockReader.readBlock(mapped, blob).entities().map(OSMEntity::osmId).toList();
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void testPooledBlocks() throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2, 3),
+                TestPbf.ways(1, 2),
+                TestPbf.relations(1)));
+        var pbf = OSMPbf.open(path);
+        var blobs = pbf.blobs().toList();
+        var pool = new BufferPool("test", 4);
+
+        try (var source = pbf.blobSource()) {
+            var ids = new ArrayList<Long>();
+            for (var blob : blobs) {
+                BlockReader.entities(BlockReader.readBlock(source, blob, pool))
+                        .forEachRemaining(osm -> ids.add(osm.id()));
+            }
+            assertEquals(List.of(1L, 2L, 3L, 1L, 2L, 1L), ids);
+        }
+
+        var stats = pool.stats();
+        assertEquals(6, stats.requests());
+        // first blob and block buffer are allocated, all others are reused
+        assertEquals(4, stats.hits());
+    }
+}
@@ -0,0 +1,51 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlockPrefetcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 8})
+    void testOrderedBlocks(int depth) throws IOException {
+        var path = TestPbf.write(tempDir.resolve("test.osm.pbf"), List.of(
+                TestPbf.nodes(1, 2),
+                TestPbf.nodes(3, 4),
+                TestPbf.nodes(5),
+                TestPbf.nodes(6, 7),
+                TestPbf.nodes(8)));
+        var pbf = OSMPbf.open(path);
+        var blobs = pbf.blobs().toList();
+        var pool = new BufferPool("test", 16);
+
+        try (var source = pbf.blobSource();
+             var prefetcher = new BlockPrefetcher(source, pool, new BlockPrefetcher.Config(depth, 2))) {
+            // prefetch [1, 3), the remaining blocks are read on demand
+            try (var blocks = prefetcher.blocks(blobs, 1, 3)) {
+                var ids = new ArrayList<Long>();
+                while (blocks.hasNext()) {
+                    BlockReader.entities(blocks.next()).forEachRemaining(osm -> ids.add(osm.id()));
+                }
+                assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L), ids);
+            }
+
+            // closing early releases the blocks in flight
+            try (var blocks = prefetcher.blocks(blobs, 0, blobs.size())) {
+                assertEquals(0, blocks.index());
+                blocks.next().release();
+                assertEquals(1, blocks.index());
+            }
+        }
+    }
+}
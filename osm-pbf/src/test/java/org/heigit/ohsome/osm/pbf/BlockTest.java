@@ -3,10 +3,13 @@ package org.heigit.ohsome.osm.pbf;
 import com.google.protobuf.ByteString;
 import crosby.binary.Osmformat;
 import org.heigit.ohsome.osm.OSMEntity;
+import org.heigit.ohsome.osm.OSMMember;
+import org.heigit.ohsome.osm.OSMType;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -76,4 +79,131 @@ class BlockTest {
         assertFalse(entities.hasNext());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testDenseNodes() {
+        var block = Osmformat.PrimitiveBlock.newBuilder();
+        block.setStringtable(Osmformat.StringTable.newBuilder()
+                .addS(ByteString.copyFromUtf8("")) // Never used.
+                .addS(ByteString.copyFromUtf8("natural"))
+                .addS(ByteString.copyFromUtf8("tree"))
+                .addS(ByteString.copyFromUtf8("heigit"))
+                .build()
+        );
+        block.addPrimitivegroup(Osmformat.PrimitiveGroup.newBuilder()
+                .setDense(Osmformat.DenseNodes.newBuilder()
+                        .addAllId(List.of(2L, 3L, 1L)) // delta coded: 2, 5, 6
+                        .addAllLat(List.of(100L, 10L, -20L))
+                        .addAllLon(List.of(200L, 20L, -40L))
+                        .addAllKeysVals(List.of(1, 2, 0, 0, 1, 2, 0))
+                        .setDenseinfo(Osmformat.DenseInfo.newBuilder()
+                                .addAllVersion(List.of(1, 2, 3))
+                                .addAllTimestamp(List.of(10L, 1L, 1L))
+                                .addAllChangeset(List.of(100L, 1L, 1L))
+                                .addAllUid(List.of(23, 0, 0))
+                                .addAllUserSid(List.of(3, 0, 0))
+                                .addAllVisible(List.of(true, false, true)))));
+
+        var data = block.build().toByteArray();
+        var groups = ProtoZero.decodeMessage(ByteBuffer.wrap(data), Block::new).entities().toList();
+        assertEquals(3, groups.size());
+
+        var node = (OSMEntity.OSMNode) groups.get(0);
+        assertEquals(2, node.id());
+        assertEquals(1, node.version());
+        assertEquals(10, node.timestamp());
+        assertEquals(100, node.changeset());
+        assertEquals("heigit", node.user());
+        assertEquals(Map.of("natural", "tree"), node.tags());
+        assertEquals(100 * 100 / 1E9, node.lat());
+        assertEquals(200 * 100 / 1E9, node.lon());
+
+        node = (OSMEntity.OSMNode) groups.get(1);
+        assertEquals(5, node.id());
+        assertEquals(101, node.changeset());
+        assertFalse(node.visible());
+        assertEquals(Map.of(), node.tags());
+
+        node = (OSMEntity.OSMNode) groups.get(2);
+        assertEquals(6, node.id());
+        assertEquals(12, node.timestamp());
+        assertTrue(node.visible());
+        assertEquals(Map.of("natural", "tree"), node.tags());
+        assertEquals(90 * 100 / 1E9, node.lat());
+    }
+
+    @Test
+    void testCursor() {
+        var block = TestPbf.nodes(1, 2).toBuilder()
+                .addAllPrimitivegroup(TestPbf.ways(3, 4).getPrimitivegroupList())
+                .addAllPrimitivegroup(TestPbf.relations(5).getPrimitivegroupList())
+                .build();
+        var data = block.toByteArray();
+        var expected = ProtoZero.decodeMessage(ByteBuffer.wrap(data), Block::new).entities().toList();
+
+        var cursor = ProtoZero.decodeMessage(ByteBuffer.wrap(data), Block::new).cursor();
+        for (var entity : expected) {
+            assertTrue(cursor.next());
+            assertEquals(entity.type(), cursor.type());
+            assertEquals(entity.id(), cursor.id());
+            assertEquals(entity.timestamp() * 1000, cursor.timestamp());
+            assertEquals(entity.user(), cursor.user());
+            assertEquals(1, cursor.tagCount());
+            assertEquals("natural", cursor.string(cursor.keySid(0)));
+            assertEquals("tree", cursor.string(cursor.valSid(0)));
+            assertEquals(entity, cursor.entity());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void testRelationMembers() {
+        var block = Osmformat.PrimitiveBlock.newBuilder()
+                .setStringtable(TestPbf.STRING_TABLE)
+                .addPrimitivegroup(Osmformat.PrimitiveGroup.newBuilder()
+                        .addRelations(Osmformat.Relation.newBuilder()
+                                .setId(5)
+                                .addMemids(2).addTypes(Osmformat.Relation.MemberType.WAY).addRolesSid(3)
+                                .addMemids(1).addTypes(Osmformat.Relation.MemberType.NODE).addRolesSid(1)
+                                .addMemids(4).addTypes(Osmformat.Relation.MemberType.WAY).addRolesSid(3)
+                                .setInfo(TestPbf.info(1, 12345))))
+                .build();
+        var relation = (OSMEntity.OSMRelation) ProtoZero.decodeMessage(ByteBuffer.wrap(block.toByteArray()), Block::new)
+                .entities().findFirst().orElseThrow();
+
+        assertEquals(List.of(
+                new OSMMember(OSMType.WAY, 2, "heigit"),
+                new OSMMember(OSMType.NODE, 3, "natural"),
+                new OSMMember(OSMType.WAY, 7, "heigit")), relation.members());
+        var view = relation.memberView();
+        // the decoded view is handed out without copying the members
+        assertSame(view, relation.memberView());
+        assertEquals(3, view.size());
+        assertEquals(OSMType.NODE, view.type(1));
+        assertEquals(7, view.id(2));
+        assertEquals("natural", view.role(1));
+        assertEquals(view.roleIndex(0), view.roleIndex(2));
+        assertNotEquals(view.roleIndex(0), view.roleIndex(1));
+    }
+
+    @Test
+    void testLocationsOnWays() {
+        var block = Osmformat.PrimitiveBlock.newBuilder()
+                .setStringtable(TestPbf.STRING_TABLE)
+                .addPrimitivegroup(Osmformat.PrimitiveGroup.newBuilder()
+                        .addWays(Osmformat.Way.newBuilder()
+                                .setId(2)
+                                .addAllRefs(List.of(1L, 4L)) // delta coded: 1, 5
+                                .addAllLat(List.of(100L, 10L))
+                                .addAllLon(List.of(200L, -20L))
+                                .setInfo(TestPbf.info(1, 12345))))
+                .build();
+
+        var cursor = ProtoZero.decodeMessage(ByteBuffer.wrap(block.toByteArray()), Block::new).cursor();
+        assertTrue(cursor.next());
+        assertTrue(cursor.hasLocations());
+        assertEquals(5, cursor.ref(1));
+        assertEquals(100 * 100 / 1E9, cursor.refLat(0));
+        assertEquals(180 * 100 / 1E9, cursor.refLon(1));
+        assertEquals(110 * 100 / 1E9, cursor.refLat(1));
+    }
+}
@@ -0,0 +1,45 @@
+package org.heigit.ohsome.osm.pbf;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyFilterTest {
+
+    private static Block block() {
+        return ProtoZero.decodeMessage(ByteBuffer.wrap(TestPbf.nodes(1, 2).toByteArray()), Block::new);
+    }
+
+    @Test
+    void testNone() {
+        var matcher = KeyFilter.none().matcher(block());
+        assertTrue(KeyFilter.none().isEmpty());
+        assertTrue(matcher.mayMatch());
+    }
+
+    @Test
+    void testMissingKey() {
+        var filter = new KeyFilter(Map.of("building", value -> true));
+        assertFalse(filter.matcher(block()).mayMatch());
+    }
+
+    @Test
+    void testMatches() {
+        var block = block();
+        var matcher = new KeyFilter(Map.of("natural", "tree"::equals)).matcher(block);
+        assertTrue(matcher.mayMatch());
+        var cursor = block.cursor();
+        assertTrue(cursor.next());
+        assertTrue(matcher.matches(cursor));
+
+        block = block();
+        matcher = new KeyFilter(Map.of("natural", "water"::equals)).matcher(block);
+        assertTrue(matcher.mayMatch());
+        cursor = block.cursor();
+        assertTrue(cursor.next());
+        assertFalse(matcher.matches(cursor));
+    }
+}
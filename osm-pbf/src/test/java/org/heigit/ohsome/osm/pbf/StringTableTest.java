@@ -0,0 +1,57 @@
+package org.heigit.ohsome.osm.pbf;
+
+import com.google.protobuf.ByteString;
+import crosby.binary.Osmformat;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringTableTest {
+
+    private static StringTable strings() {
+        return new StringTable(ByteBuffer.wrap(TestPbf.STRING_TABLE.toByteArray()));
+    }
+
+    @Test
+    void testLazyStrings() {
+        var strings = strings();
+        assertEquals(4, strings.size());
+        assertEquals("", strings.get(0));
+        assertEquals("heigit", strings.get(3));
+        assertEquals("natural", strings.get(1));
+        assertSame(strings.get(1), strings.get(1));
+    }
+
+    @Test
+    void testInternedKeys() {
+        var a = strings();
+        var b = strings();
+        assertNotSame(a.get(1), b.get(1));
+        assertSame(a.key(1), b.key(1));
+        assertSame(a.value(2), b.value(2));
+    }
+
+    @Test
+    void testValuesDoNotStarveKeys() {
+        var keys = new StringTable.Interner(4);
+        var values = new StringTable.Interner(4);
+        var table = Osmformat.StringTable.newBuilder().addS(ByteString.copyFromUtf8(""));
+        for (var i = 0; i < 10; i++) {
+            table.addS(ByteString.copyFromUtf8(Integer.toString(i)));
+        }
+        table.addS(ByteString.copyFromUtf8("building"));
+        var bytes = table.build().toByteArray();
+
+        var a = new StringTable(ByteBuffer.wrap(bytes), keys, values);
+        var b = new StringTable(ByteBuffer.wrap(bytes), keys, values);
+        // house numbers fill the value table
+        for (var i = 1; i <= 10; i++) {
+            a.value(i);
+        }
+        assertNotSame(a.value(10), b.value(10));
+        assertSame(a.value(1), b.value(1));
+        assertSame(a.key(11), b.key(11));
+    }
+}
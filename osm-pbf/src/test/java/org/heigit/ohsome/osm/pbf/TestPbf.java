@@ -0,0 +1,123 @@
+package org.heigit.ohsome.osm.pbf;
+
+import com.github.luben.zstd.Zstd;
+import com.google.protobuf.ByteString;
+import crosby.binary.Fileformat;
+import crosby.binary.Osmformat;
+import io.airlift.compress.lz4.Lz4Compressor;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+
+class TestPbf {
+
+    private TestPbf() {
+        // utility class
+    }
+
+    static final Osmformat.StringTable STRING_TABLE = Osmformat.StringTable.newBuilder()
+            .addS(ByteString.copyFromUtf8("")) // Never used.
+            .addS(ByteString.copyFromUtf8("natural"))
+            .addS(ByteString.copyFromUtf8("tree"))
+            .addS(ByteString.copyFromUtf8("heigit"))
+            .build();
+
+    static Osmformat.Info.Builder info(int version, long timestamp) {
+        return Osmformat.Info.newBuilder()
+                .setChangeset(timestamp)
+                .setTimestamp(timestamp)
+                .setVersion(version)
+                .setVisible(true)
+                .setUid(23)
+                .setUserSid(3);
+    }
+
+    static Osmformat.PrimitiveBlock nodes(long... ids) {
+        var group = Osmformat.PrimitiveGroup.newBuilder();
+        for (var id : ids) {
+            group.addNodes(Osmformat.Node.newBuilder()
+                    .setId(id).setLon(12345).setLat(12345)
+                    .addKeys(1).addVals(2)
+                    .setInfo(info(1, 12345)));
+        }
+        return Osmformat.PrimitiveBlock.newBuilder().setStringtable(STRING_TABLE).addPrimitivegroup(group).build();
+    }
+
+    static Osmformat.PrimitiveBlock ways(long... ids) {
+        var group = Osmformat.PrimitiveGroup.newBuilder();
+        for (var id : ids) {
+            group.addWays(Osmformat.Way.newBuilder()
+                    .setId(id)
+                    .addAllRefs(List.of(1L, 4L))
+                    .addKeys(1).addVals(2)
+                    .setInfo(info(1, 12345)));
+        }
+        return Osmformat.PrimitiveBlock.newBuilder().setStringtable(STRING_TABLE).addPrimitivegroup(group).build();
+    }
+
+    static Osmformat.PrimitiveBlock relations(long... ids) {
+        var group = Osmformat.PrimitiveGroup.newBuilder();
+        for (var id : ids) {
+            group.addRelations(Osmformat.Relation.newBuilder()
+                    .setId(id)
+                    .addMemids(2).addTypes(Osmformat.Relation.MemberType.WAY).addRolesSid(0)
+                    .addKeys(1).addVals(2)
+                    .setInfo(info(1, 12345)));
+        }
+        return Osmformat.PrimitiveBlock.newBuilder().setStringtable(STRING_TABLE).addPrimitivegroup(group).build();
+    }
+
+    static Path write(Path path, List<Osmformat.PrimitiveBlock> blocks) throws IOException {
+        return write(path, blocks, Blob.DataType.ZLIB);
+    }
+
+    static Path write(Path path, List<Osmformat.PrimitiveBlock> blocks, Blob.DataType compression) throws IOException {
+        try (var out = new DataOutputStream(Files.newOutputStream(path))) {
+            var header = Osmformat.HeaderBlock.newBuilder()
+                    .addRequiredFeatures("OsmSchema-V0.6")
+                    .addRequiredFeatures(Header.HISTORICAL_INFORMATION)
+                    .build();
+            write(out, BlobType.HEADER, header.toByteArray(), Blob.DataType.ZLIB);
+            for (var block : blocks) {
+                write(out, BlobType.DATA, block.toByteArray(), compression);
+            }
+        }
+        return path;
+    }
+
+    private static void write(DataOutputStream out, BlobType type, byte[] data, Blob.DataType compression) throws IOException {
+        var builder = Fileformat.Blob.newBuilder().setRawSize(data.length);
+        switch (compression) {
+            case RAW -> builder.setRaw(ByteString.copyFrom(data));
+            case ZLIB -> {
+                var deflater = new Deflater();
+                deflater.setInput(data);
+                deflater.finish();
+                var compressed = new byte[data.length + 64];
+                var length = deflater.deflate(compressed);
+                deflater.end();
+                builder.setZlibData(ByteString.copyFrom(compressed, 0, length));
+            }
+            case LZ4 -> {
+                var compressor = new Lz4Compressor();
+                var compressed = new byte[compressor.maxCompressedLength(data.length)];
+                var length = compressor.compress(data, 0, data.length, compressed, 0, compressed.length);
+                builder.setLz4Data(ByteString.copyFrom(compressed, 0, length));
+            }
+            case ZSTD -> builder.setZstdData(ByteString.copyFrom(Zstd.compress(data)));
+            default -> throw new UnsupportedOperationException(compression.toString());
+        }
+        var blob = builder.build().toByteArray();
+        var blobHeader = Fileformat.BlobHeader.newBuilder()
+                .setType(type.toString())
+                .setDatasize(blob.length)
+                .build().toByteArray();
+        out.writeInt(blobHeader.length);
+        out.write(blobHeader);
+        out.write(blob);
+    }
+}
@@ -0,0 +1,89 @@
+package org.heigit.ohsome.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InputTest {
+
+    private static long[] values(int size, long seed) {
+        var random = new Random(seed);
+        var values = new long[size];
+        for (var i = 0; i < size; i++) {
+            // deltas of all varint lengths, mostly short ones like in real blocks
+            values[i] = switch (random.nextInt(8)) {
+                case 0 -> random.nextLong();
+                case 1 -> random.nextInt();
+                case 2 -> random.nextInt(1 << 20) - (1 << 19);
+                default -> random.nextInt(256) - 128;
+            };
+        }
+        values[0] = Long.MIN_VALUE;
+        values[size - 1] = Long.MAX_VALUE;
+        return values;
+    }
+
+    private static ByteBuffer packedS64(long[] values, boolean direct) {
+        var output = new Output(values.length * 10);
+        var last = 0L;
+        for (var value : values) {
+            output.writeS64(value - last);
+            last = value;
+        }
+        var buffer = direct ? ByteBuffer.allocateDirect(output.length) : ByteBuffer.allocate(output.length);
+        return buffer.put(0, output.array(), 0, output.length);
+    }
+
+    @Test
+    void testPackedS64Delta() {
+        for (var direct : new boolean[]{false, true}) {
+            var expected = values(10_000, 42);
+            var buffer = packedS64(expected, direct);
+            var input = Input.fromBuffer(buffer);
+            var actual = new long[expected.length + 2];
+            actual[0] = 23;
+            var n = input.readPackedS64Delta(actual, 1, buffer.limit(), 0);
+            assertEquals(expected.length, n);
+            assertEquals(buffer.limit(), input.pos());
+            assertEquals(23, actual[0]);
+            for (var i = 0; i < n; i++) {
+                assertEquals(expected[i], actual[i + 1], "value " + i);
+            }
+        }
+    }
+
+    @Test
+    void testPackedS32Delta() {
+        var expected = new int[]{0, 1, -1, 63, -64, 64, 8191, -8192, 8192, 1 << 29, -(1 << 29), 3};
+        var output = new Output(64);
+        var last = 0;
+        for (var value : expected) {
+            output.writeSInt32(value - last);
+            last = value;
+        }
+        var input = Input.fromBuffer(ByteBuffer.wrap(output.array(), 0, output.length));
+        var actual = new int[output.length];
+        var n = input.readPackedS32Delta(actual, 0, output.length, 0);
+        assertEquals(expected.length, n);
+        assertArrayEquals(expected, Arrays.copyOf(actual, n));
+    }
+
+    @Test
+    void testPackedU32() {
+        var expected = new int[]{0, 1, 127, 128, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE, 5};
+        var output = new Output(64);
+        for (var value : expected) {
+            output.writeU32(value);
+        }
+        var input = Input.fromBuffer(ByteBuffer.wrap(output.array(), 0, output.length));
+        var actual = new int[output.length];
+        var n = input.readPackedU32(actual, 0, output.length);
+        assertEquals(expected.length, n);
+        assertArrayEquals(expected, Arrays.copyOf(actual, n));
+    }
+}
@@ -0,0 +1,130 @@
+package org.heigit.ohsome.osm;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable list of primitive longs. It is a regular {@code List<Long>}, so it compares equal to any other list
+ * of the same values, but {@link #getLong(int)}, {@link #forEachLong(LongConsumer)} and {@link #longStream()}
+ * give access without boxing.
+ */
+public final class LongList extends AbstractList<Long> implements RandomAccess {
+    private static final LongList EMPTY = new LongList(new long[0], 0, 0);
+
+    private final long[] values;
+    private final int offset;
+    private final int size;
+
+    private LongList(long[] values, int offset, int size) {
+        this.values = values;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static LongList of() {
+        return EMPTY;
+    }
+
+    public static LongList of(long... values) {
+        return values.length == 0 ? EMPTY : new LongList(values.clone(), 0, values.length);
+    }
+
+    /**
+     * Wraps {@code values[from]} to {@code values[to]} without copying, the array must not be modified afterwards.
+     */
+    public static LongList wrap(long[] values, int from, int to) {
+        return from == to ? EMPTY : new LongList(values, from, to - from);
+    }
+
+    public static LongList copyOf(Collection<Long> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values instanceof LongList list) {
+            return list;
+        }
+        var array = new long[values.size()];
+        var i = 0;
+        for (var value : values) {
+            array[i++] = value;
+        }
+        return wrap(array, 0, array.length);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    public long getLong(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[offset + index];
+    }
+
+    public void forEachLong(LongConsumer action) {
+        for (var i = offset; i < offset + size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public LongStream longStream() {
+        return Arrays.stream(values, offset, offset + size);
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOfRange(values, offset, offset + size);
+    }
+
+    /**
+     * Copies the values into dst starting at dstOffset.
+     */
+    public void copyTo(long[] dst, int dstOffset) {
+        System.arraycopy(values, offset, dst, dstOffset, size);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Long value) {
+            for (var i = 0; i < size; i++) {
+                if (values[offset + i] == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LongList other) {
+            return Arrays.equals(values, offset, offset + size, other.values, other.offset, other.offset + other.size);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // same as List.hashCode()
+        var hash = 1;
+        for (var i = offset; i < offset + size; i++) {
+            hash = 31 * hash + Long.hashCode(values[i]);
+        }
+        return hash;
+    }
+}
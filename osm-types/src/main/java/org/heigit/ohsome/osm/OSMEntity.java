@@ -1,6 +1,5 @@
 package org.heigit.ohsome.osm;
 
-import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -17,7 +16,10 @@ public sealed interface OSMEntity {
 
   int version();
 
-  Instant timestamp();
+  /**
+   * @return timestamp in epoch seconds
+   */
+  long timestamp();
 
   long changeset();
 
@@ -31,7 +33,12 @@ public sealed interface OSMEntity {
 
   List<OSMMember> members();
 
-  record OSMNode(long id, int version, Instant timestamp, long changeset, int userId, String user,
+  /**
+   * @return the members without materializing an {@link OSMMember} per member
+   */
+  OSMMembers memberView();
+
+  record OSMNode(long id, int version, long timestamp, long changeset, int userId, String user,
                  boolean visible,
                  Map<String, String> tags, double lon, double lat) implements OSMEntity {
 
@@ -44,17 +51,28 @@ public sealed interface OSMEntity {
     public List<OSMMember> members() {
       return Collections.emptyList();
     }
+
+    @Override
+    public OSMMembers memberView() {
+      return OSMMembers.nodes(LongList.of());
+    }
   }
 
-  record OSMWay(long id, int version, Instant timestamp, long changeset, int userId, String user,
+  record OSMWay(long id, int version, long timestamp, long changeset, int userId, String user,
                 boolean visible,
-                Map<String, String> tags, List<Long> refs, List<Long> lons,
+                Map<String, String> tags, LongList refs, List<Long> lons,
                 List<Long> lats) implements OSMEntity {
 
-    public OSMWay(long id, int version, Instant timestamp, long changeset, int userId, String user,
+    public OSMWay(long id, int version, long timestamp, long changeset, int userId, String user,
+        boolean visible,
+        Map<String, String> tags, List<Long> refs, List<Long> lons, List<Long> lats) {
+      this(id, version, timestamp, changeset, userId, user, visible, tags, LongList.copyOf(refs), lons, lats);
+    }
+
+    public OSMWay(long id, int version, long timestamp, long changeset, int userId, String user,
         boolean visible,
         Map<String, String> tags, List<Long> refs) {
-      this(id, version, timestamp, changeset, userId, user, visible, tags, refs, null, null);
+      this(id, version, timestamp, changeset, userId, user, visible, tags, LongList.copyOf(refs), null, null);
     }
 
     @Override
@@ -66,9 +84,14 @@ public sealed interface OSMEntity {
     public List<OSMMember> members() {
       return refs.stream().map(ref -> new OSMMember(OSMType.NODE, ref, "")).toList();
     }
+
+    @Override
+    public OSMMembers memberView() {
+      return OSMMembers.nodes(refs);
+    }
   }
 
-  record OSMRelation(long id, int version, Instant timestamp, long changeset, int userId,
+  record OSMRelation(long id, int version, long timestamp, long changeset, int userId,
                      String user, boolean visible,
                      Map<String, String> tags, List<OSMMember> members) implements OSMEntity {
 
@@ -76,6 +99,11 @@ public sealed interface OSMEntity {
     public OSMType type() {
       return OSMType.RELATION;
     }
+
+    @Override
+    public OSMMembers memberView() {
+      return OSMMembers.of(members);
+    }
   }
 
 }
@@ -0,0 +1,164 @@
+package org.heigit.ohsome.osm;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Primitive view on the members of an entity: member i is described by its type, id and the index of its role
+ * in a small table of distinct roles. Ways expose their refs as node members without creating any member object.
+ */
+public sealed interface OSMMembers {
+
+    int size();
+
+    OSMType type(int i);
+
+    long id(int i);
+
+    int roleIndex(int i);
+
+    String role(int i);
+
+    default OSMId osmId(int i) {
+        return new OSMId(type(i), id(i));
+    }
+
+    /**
+     * @return the members as list, an {@link OSMMember} is only created when it is accessed
+     */
+    default List<OSMMember> asList() {
+        return new MemberList(this);
+    }
+
+    /**
+     * @return node members for the refs of a way
+     */
+    static OSMMembers nodes(LongList refs) {
+        return new Nodes(refs);
+    }
+
+    /**
+     * Packs the members of a decoder, e.g. of a pbf block, every distinct role is resolved only once.
+     *
+     * @param roleIds ids of the roles in the string table of the decoder, replaced by the role indices
+     */
+    static Packed packed(OSMType[] types, long[] ids, int[] roleIds, IntFunction<String> roleOf) {
+        var distinct = Arrays.stream(roleIds).sorted().distinct().toArray();
+        var roles = new String[distinct.length];
+        for (var i = 0; i < distinct.length; i++) {
+            roles[i] = roleOf.apply(distinct[i]);
+        }
+        for (var i = 0; i < roleIds.length; i++) {
+            roleIds[i] = Arrays.binarySearch(distinct, roleIds[i]);
+        }
+        return new Packed(types, ids, roleIds, roles);
+    }
+
+    /**
+     * @return the view of a list created by {@link #asList()}, otherwise a packed copy of the members
+     */
+    static OSMMembers of(List<OSMMember> members) {
+        if (members instanceof MemberList list) {
+            return list.view();
+        }
+        var size = members.size();
+        var types = new OSMType[size];
+        var ids = new long[size];
+        var roleIndices = new int[size];
+        var roles = new ArrayList<String>();
+        var roleIndex = new HashMap<String, Integer>();
+        for (var i = 0; i < size; i++) {
+            var member = members.get(i);
+            types[i] = member.type();
+            ids[i] = member.id();
+            roleIndices[i] = roleIndex.computeIfAbsent(member.role(), role -> {
+                roles.add(role);
+                return roles.size() - 1;
+            });
+        }
+        return new Packed(types, ids, roleIndices, roles.toArray(String[]::new));
+    }
+
+    record Nodes(LongList refs) implements OSMMembers {
+
+        @Override
+        public int size() {
+            return refs.size();
+        }
+
+        @Override
+        public OSMType type(int i) {
+            return OSMType.NODE;
+        }
+
+        @Override
+        public long id(int i) {
+            return refs.getLong(i);
+        }
+
+        @Override
+        public int roleIndex(int i) {
+            return 0;
+        }
+
+        @Override
+        public String role(int i) {
+            return "";
+        }
+    }
+
+    record Packed(OSMType[] types, long[] ids, int[] roleIndices, String[] roles) implements OSMMembers {
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public OSMType type(int i) {
+            return types[i];
+        }
+
+        @Override
+        public long id(int i) {
+            return ids[i];
+        }
+
+        @Override
+        public int roleIndex(int i) {
+            return roleIndices[i];
+        }
+
+        @Override
+        public String role(int i) {
+            return roles[roleIndices[i]];
+        }
+    }
+
+    final class MemberList extends AbstractList<OSMMember> implements RandomAccess {
+        private final OSMMembers view;
+
+        private MemberList(OSMMembers view) {
+            this.view = view;
+        }
+
+        public OSMMembers view() {
+            return view;
+        }
+
+        @Override
+        public OSMMember get(int i) {
+            return new OSMMember(view.type(i), view.id(i), view.role(i));
+        }
+
+        @Override
+        public int size() {
+            return view.size();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Map;
 import javax.management.modelmbean.XMLParseException;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import org.heigit.ohsome.osm.LongList;
 import org.heigit.ohsome.osm.OSMEntity;
 import org.heigit.ohsome.osm.OSMEntity.OSMNode;
 import org.heigit.ohsome.osm.OSMEntity.OSMRelation;
@@ -59,15 +60,15 @@ public class OSMXmlEntityReader {
     if (Double.isNaN(lon) || Double.isNaN(lat)) {
       throw new XMLParseException("missing lon/lat %s/%s".formatted(lon, lat));
     }
-    return new OSMNode(id, version, Instant.ofEpochSecond(timestamp), changeset, uid, user, visible, Map.copyOf(tags), lon, lat);
+    return new OSMNode(id, version, timestamp, changeset, uid, user, visible, Map.copyOf(tags), lon, lat);
   }
 
   private OSMEntity way() {
-    return new OSMWay(id, version, Instant.ofEpochSecond(timestamp), changeset, uid, user, visible, Map.copyOf(tags), List.copyOf(refs));
+    return new OSMWay(id, version, timestamp, changeset, uid, user, visible, Map.copyOf(tags), LongList.copyOf(refs));
   }
 
   private OSMEntity relation() {
-    return new OSMRelation(id, version, Instant.ofEpochSecond(timestamp), changeset, uid, user, visible, Map.copyOf(tags), List.copyOf(members));
+    return new OSMRelation(id, version, timestamp, changeset, uid, user, visible, Map.copyOf(tags), List.copyOf(members));
   }
 
   private void parseEntity(XMLStreamReader reader, boolean visible) throws XMLStreamException, XMLParseException {